@@ -87,6 +87,61 @@ public interface Check extends Configurable {
      */
     EnumSet<Type> getInterest();
 
+    /**
+     * The analyzer can leave out the elements that are structurally identical in the old and new API, i.e. that have
+     * the same declaration, modifiers, annotations, type parameters, super types and children. Only the checks that
+     * return true from this method are called for such elements.
+     *
+     * <p>The checks that merely compare the old and the new element can return false. The checks that report on
+     * something else, like the properties of one of the elements alone or a state of the types outside of the compared
+     * elements, need to return true.
+     *
+     * @return true if this check needs to visit also the structurally identical elements, false otherwise
+     * @since 0.14.1
+     */
+    default boolean isInterestedInIdenticalElements() {
+        return true;
+    }
+
+    /**
+     * The checks usually only look at a few attributes of the compared elements, like their modifiers or types, and
+     * can only find a difference if some of those attributes differ between the old and new element. The analyzer
+     * can then leave out the check for the pairs of elements where none of these attributes changed.
+     *
+     * <p>This only applies to the pairs where both the old and the new element exist and are not annotations. The
+     * additions and removals of elements and the annotations are always passed to the check.
+     *
+     * <p>Note that the check is either visited or left out for the whole pair, i.e. it will not see the
+     * {@link #visitEnd()} call for a pair it didn't visit.
+     *
+     * @return the attributes this check inspects or null if the check needs to be called regardless of which
+     * attributes changed, which is the default
+     * @since 0.14.1
+     */
+    @Nullable
+    default EnumSet<Attribute> getInspectedAttributes() {
+        return null;
+    }
+
+    /**
+     * The checks keep the state of the traversal of the element tree between the {@code visit*} calls and the
+     * corresponding {@link #visitEnd()} calls, so a single instance can only take part in one analysis at a time. The
+     * checks obtained from the service loader are therefore only used as prototypes and the analyzer uses this method
+     * to create a separate instance for each of its difference analyzers. The new instance is configured and given
+     * the type environments the same way as the prototype.
+     *
+     * <p>The default implementation returns null, in which case the prototype itself is used in the analysis and must
+     * not be shared by difference analyzers running concurrently.
+     *
+     * @return a new instance of this check that doesn't share any state with this instance or null if the check
+     * cannot create one
+     * @since 0.14.1
+     */
+    @Nullable
+    default Check newInstance() {
+        return null;
+    }
+
     /**
      * Each of the other visit* calls is followed by a corresponding call to this method in a stack-like
      * manner.
@@ -132,4 +187,58 @@ public interface Check extends Configurable {
     enum Type {
         CLASS, METHOD, METHOD_PARAMETER, FIELD, ANNOTATION
     }
+
+    /**
+     * The attributes of the java elements that the checks can declare interest in using
+     * {@link #getInspectedAttributes()}.
+     *
+     * @since 0.14.1
+     */
+    enum Attribute {
+        /**
+         * The kind of the element, e.g. class, interface, enum or annotation type.
+         */
+        KIND,
+
+        /**
+         * The modifiers of the element, including its visibility.
+         */
+        MODIFIERS,
+
+        /**
+         * The type of the element, i.e. the type of a field or a method parameter, the signature of a method
+         * including its return type or the type of a class including its type arguments.
+         */
+        TYPE,
+
+        /**
+         * The formal type parameters of a class or a method, including their bounds.
+         */
+        TYPE_PARAMETERS,
+
+        /**
+         * All the super classes and implemented interfaces of a class.
+         */
+        SUPER_TYPES,
+
+        /**
+         * The types declared to be thrown by a method.
+         */
+        THROWN_TYPES,
+
+        /**
+         * The constant value of a field.
+         */
+        CONSTANT_VALUE,
+
+        /**
+         * The default value of an annotation method.
+         */
+        DEFAULT_VALUE,
+
+        /**
+         * The annotations of the element.
+         */
+        ANNOTATIONS
+    }
 }
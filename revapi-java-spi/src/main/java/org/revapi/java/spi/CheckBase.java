@@ -152,6 +152,24 @@ public abstract class CheckBase implements Check {
     private int depth;
     private final Deque<ActiveElements<?>> activations = new ArrayDeque<>();
     private AnalysisContext analysisContext;
+    private final boolean newInstances;
+
+    /**
+     * The checks created using this constructor don't provide new instances of themselves. A single instance of the
+     * check is therefore shared by all the difference analyzers.
+     */
+    protected CheckBase() {
+        this(false);
+    }
+
+    /**
+     * @param newInstances whether {@link #newInstance()} should create new instances of the check using its public
+     *                     no-arg constructor
+     * @since 0.14.1
+     */
+    protected CheckBase(boolean newInstances) {
+        this.newInstances = newInstances;
+    }
 
     @Nonnull
     protected Difference createDifference(@Nonnull Code code, String[] attachments) {
@@ -192,6 +210,27 @@ public abstract class CheckBase implements Check {
         return null;
     }
 
+    /**
+     * Creates a new instance of the check using its public no-arg constructor if the check asked for it in its
+     * {@link #CheckBase(boolean) constructor}. Otherwise returns null and the check is shared.
+     *
+     * @see Check#newInstance()
+     */
+    @Nullable
+    @Override
+    public Check newInstance() {
+        if (!newInstances) {
+            return null;
+        }
+
+        try {
+            return getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create a new instance of check " + getClass().getName()
+                    + ". The checks providing new instances need a public no-arg constructor.", e);
+        }
+    }
+
     @Override
     public void initialize(@Nonnull AnalysisContext analysisContext) {
         this.analysisContext = analysisContext;
@@ -24,14 +24,18 @@ import static org.revapi.DifferenceSeverity.EQUIVALENT;
 import static org.revapi.DifferenceSeverity.NON_BREAKING;
 import static org.revapi.DifferenceSeverity.POTENTIALLY_BREAKING;
 
-import java.lang.ref.WeakReference;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -208,7 +212,7 @@ public enum Code {
             ret = new String[customAttachments.length + 4];
             System.arraycopy(customAttachments, 0, ret, 0, customAttachments.length);
             ret[idx] = "annotationType";
-            ret[idx + 1] = Util.toHumanReadableString(anno.getAnnotation().getAnnotationType());
+            ret[idx + 1] = anno.getTypeEnvironment().toHumanReadableString(anno.getAnnotation().getAnnotationType());
             ret[idx + 2] = "elementKind";
             ret[idx + 3] = "annotation";
         } else if (representative instanceof JavaFieldElement) {
@@ -374,7 +378,15 @@ public enum Code {
     }
 
     public Difference createDifference(@Nonnull Locale locale, String... attachments) {
-        return createDifference(locale, keyVals(attachments));
+        LinkedHashMap<String, String> ats = keyVals(attachments);
+
+        //the values of the attachments are the parameters of the description, so if no key repeats, we don't need to
+        //go through the map to get them
+        String[] params = ats.size() * 2 == attachments.length
+                ? vals(attachments)
+                : ats.values().toArray(new String[ats.size()]);
+
+        return createDifference(locale, ats, params);
     }
 
     public Difference createDifference(@Nonnull Locale locale, LinkedHashMap<String, String> attachments) {
@@ -403,7 +415,7 @@ public enum Code {
     private Difference createDifference(@Nonnull Locale locale, LinkedHashMap<String, String> attachments,
                                        String... parameters) {
         Message message = getMessages(locale).get(code);
-        String description = MessageFormat.format(message.description, parameters);
+        String description = message.descriptionTemplate.format(parameters);
         Difference.Builder bld = Difference.builder().withCode(code).withName(message.name)
                 .withDescription(description).addAttachments(attachments);
 
@@ -441,40 +453,150 @@ public enum Code {
     private static class Message {
         final String name;
         final String description;
+        final MessageTemplate descriptionTemplate;
 
         private Message(String name, String description) {
             this.description = description;
             this.name = name;
+            this.descriptionTemplate = MessageTemplate.parse(description);
         }
     }
 
+    /**
+     * The messages for a single locale. All the messages are read from the bundles and their descriptions parsed when
+     * the instance is created so that it can be read concurrently without any locking.
+     */
     private static class Messages {
 
         private final ResourceBundle names;
         private final ResourceBundle descriptions;
+        private final Map<String, Message> messages;
 
         public Messages(Locale locale) {
             descriptions = ResourceBundle.getBundle("org.revapi.java.checks.descriptions", locale);
             names = ResourceBundle.getBundle("org.revapi.java.checks.names", locale);
+
+            Map<String, Message> messages = new HashMap<>();
+            for (String key : names.keySet()) {
+                if (descriptions.containsKey(key)) {
+                    messages.put(key, new Message(names.getString(key), descriptions.getString(key)));
+                }
+            }
+
+            this.messages = Collections.unmodifiableMap(messages);
         }
 
         Message get(String key) {
-            String name = names.getString(key);
-            String description = descriptions.getString(key);
-            return new Message(name, description);
+            Message ret = messages.get(key);
+            if (ret == null) {
+                //this fails with the appropriate exception if the message is not defined
+                ret = new Message(names.getString(key), descriptions.getString(key));
+            }
+
+            return ret;
+        }
+    }
+
+    /**
+     * A pre-parsed {@link MessageFormat} pattern. The descriptions only use the simple {@code {n}} arguments which
+     * are replaced by strings, so the pattern is split into the literal parts and the argument indices once and the
+     * formatting then just concatenates them. The patterns using anything more complex are formatted by
+     * {@link MessageFormat} itself.
+     */
+    static final class MessageTemplate {
+        private final String pattern;
+        //literals[i] precedes arguments[i], the last literal follows the last argument
+        private final String[] literals;
+        private final int[] arguments;
+
+        private MessageTemplate(String pattern, String[] literals, int[] arguments) {
+            this.pattern = pattern;
+            this.literals = literals;
+            this.arguments = arguments;
+        }
+
+        static MessageTemplate parse(String pattern) {
+            List<String> literals = new ArrayList<>();
+            List<Integer> arguments = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            boolean quoted = false;
+
+            int len = pattern.length();
+            for (int i = 0; i < len; ++i) {
+                char c = pattern.charAt(i);
+                if (c == '\'') {
+                    if (i + 1 < len && pattern.charAt(i + 1) == '\'') {
+                        literal.append(c);
+                        ++i;
+                    } else {
+                        quoted = !quoted;
+                    }
+                } else if (c == '{' && !quoted) {
+                    int end = pattern.indexOf('}', i);
+                    if (end <= i + 1) {
+                        return new MessageTemplate(pattern, null, null);
+                    }
+
+                    int argument = 0;
+                    for (int j = i + 1; j < end; ++j) {
+                        char d = pattern.charAt(j);
+                        if (d < '0' || d > '9' || argument > Integer.MAX_VALUE / 10 - 1) {
+                            //formatted arguments or something weird, leave it to MessageFormat
+                            return new MessageTemplate(pattern, null, null);
+                        }
+                        argument = argument * 10 + (d - '0');
+                    }
+
+                    literals.add(literal.toString());
+                    arguments.add(argument);
+                    literal.setLength(0);
+                    i = end;
+                } else {
+                    literal.append(c);
+                }
+            }
+
+            literals.add(literal.toString());
+
+            int[] args = new int[arguments.size()];
+            for (int i = 0; i < args.length; ++i) {
+                args[i] = arguments.get(i);
+            }
+
+            return new MessageTemplate(pattern, literals.toArray(new String[literals.size()]), args);
+        }
+
+        String format(String... parameters) {
+            if (arguments == null) {
+                return MessageFormat.format(pattern, (Object[]) parameters);
+            }
+
+            StringBuilder bld = new StringBuilder(pattern.length() + 16 * arguments.length);
+            for (int i = 0; i < arguments.length; ++i) {
+                bld.append(literals[i]);
+
+                //mimic MessageFormat with the missing and null arguments
+                int argument = arguments[i];
+                if (parameters == null || argument >= parameters.length) {
+                    bld.append('{').append(argument).append('}');
+                } else {
+                    bld.append(parameters[argument]);
+                }
+            }
+
+            return bld.append(literals[arguments.length]).toString();
         }
     }
 
-    private static WeakHashMap<Locale, WeakReference<Messages>> messagesCache = new WeakHashMap<>();
+    private static final ConcurrentMap<Locale, Messages> messagesCache = new ConcurrentHashMap<>(2);
 
-    private static synchronized Messages getMessages(Locale locale) {
-        WeakReference<Messages> messageRef = messagesCache.get(locale);
-        if (messageRef == null || messageRef.get() == null) {
-            messageRef = new WeakReference<>(new Messages(locale));
-            messagesCache.put(locale, messageRef);
+    private static Messages getMessages(Locale locale) {
+        Messages ret = messagesCache.get(locale);
+        if (ret == null) {
+            ret = messagesCache.computeIfAbsent(locale, Messages::new);
         }
 
-        return messageRef.get();
+        return ret;
     }
 
     private void addClassification(CompatibilityType compatibilityType, DifferenceSeverity severity) {
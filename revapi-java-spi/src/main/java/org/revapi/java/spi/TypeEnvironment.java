@@ -16,8 +16,13 @@
 
 package org.revapi.java.spi;
 
+import java.util.List;
+
 import javax.annotation.Nonnull;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
+import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 
@@ -71,4 +76,107 @@ public interface TypeEnvironment {
      * @return true if the the user explicitly excluded this element from the API checks, false otherwise.
      */
     boolean isExplicitlyExcluded(Element element);
+
+    /**
+     * Equivalent to {@link Util#toUniqueString(TypeMirror)} but the implementations are free to cache the results for
+     * the types from this environment.
+     *
+     * @param type the type to convert to string
+     * @return the string representation of the type that is fit for equality comparisons
+     * @since 0.14.1
+     */
+    @Nonnull
+    default String toUniqueString(@Nonnull TypeMirror type) {
+        return Util.toUniqueString(type);
+    }
+
+    /**
+     * Equivalent to {@link Util#toHumanReadableString(javax.lang.model.AnnotatedConstruct)} but the implementations
+     * are free to cache the results for the types from this environment.
+     *
+     * @param type the type to convert to string
+     * @return the human readable representation of the type
+     * @since 0.14.1
+     */
+    @Nonnull
+    default String toHumanReadableString(@Nonnull TypeMirror type) {
+        return Util.toHumanReadableString(type);
+    }
+
+    /**
+     * Equivalent to {@link Util#toHumanReadableString(AnnotationMirror)} but the implementations are free to cache the
+     * results for the annotations from this environment.
+     *
+     * @param annotation the annotation to convert to string
+     * @return the human readable representation of the annotation
+     * @since 0.14.1
+     */
+    @Nonnull
+    default String toHumanReadableString(@Nonnull AnnotationMirror annotation) {
+        return Util.toHumanReadableString(annotation);
+    }
+
+    /**
+     * Equivalent to {@link Util#toCanonicalString(AnnotationValue)} but the implementations are free to cache the
+     * results for the annotation values from this environment.
+     *
+     * @param value the annotation value to encode
+     * @return the canonical representation of the value
+     * @since 0.14.1
+     */
+    @Nonnull
+    default String toCanonicalString(@Nonnull AnnotationValue value) {
+        return Util.toCanonicalString(value);
+    }
+
+    /**
+     * Equivalent to {@link Util#getAllSuperClasses(Types, TypeMirror)} using the {@link #getTypeUtils() types} of this
+     * environment but the implementations are free to cache the results. The returned list must not be modified.
+     *
+     * @param type the type from this environment
+     * @return the list of super classes of the type
+     * @since 0.14.1
+     */
+    @Nonnull
+    default List<TypeMirror> getAllSuperClasses(@Nonnull TypeMirror type) {
+        return Util.getAllSuperClasses(getTypeUtils(), type);
+    }
+
+    /**
+     * Equivalent to {@link Util#getAllSuperTypes(Types, TypeMirror)} using the {@link #getTypeUtils() types} of this
+     * environment but the implementations are free to cache the results. The returned list must not be modified.
+     *
+     * @param type the type from this environment
+     * @return the list of all super types of the type
+     * @since 0.14.1
+     */
+    @Nonnull
+    default List<TypeMirror> getAllSuperTypes(@Nonnull TypeMirror type) {
+        return Util.getAllSuperTypes(getTypeUtils(), type);
+    }
+
+    /**
+     * Equivalent to {@link Util#isSubtype(TypeMirror, List, Types)} using the {@link #getTypeUtils() types} of this
+     * environment. The supposed super types can come from any environment.
+     *
+     * @param type       the type from this environment
+     * @param superTypes the list of supposed super types
+     * @return true if the type is equal to or a sub type of one of the provided super types, false otherwise
+     * @since 0.14.1
+     */
+    default boolean isSubtype(@Nonnull TypeMirror type, @Nonnull List<? extends TypeMirror> superTypes) {
+        return Util.isSubtype(type, superTypes, getTypeUtils());
+    }
+
+    /**
+     * Equivalent to {@link Util#fingerprint(TypeMirror)} but the implementations are free to cache the results for
+     * the types from this environment.
+     *
+     * @param type the type to compute the fingerprint of
+     * @return the fingerprint of the type
+     * @since 0.14.1
+     */
+    default long fingerprint(@Nonnull TypeMirror type) {
+        return Util.fingerprint(type);
+    }
 }
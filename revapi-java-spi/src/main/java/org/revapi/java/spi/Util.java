@@ -23,6 +23,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.Callable;
 
 import javax.annotation.Nonnull;
@@ -74,12 +75,51 @@ public final class Util {
         boolean visitingMethod;
     }
 
+    /**
+     * The output of the unique string visitor. This enables computing the fingerprints of the types without actually
+     * building the strings.
+     */
+    private interface CharSink {
+        void append(CharSequence chars);
+    }
+
+    private static final class UniqueStringState {
+        final CharSink bld;
+        final Set<TypeMirror> visitedObjects = new HashSet<>();
+        boolean visitingMethod;
+
+        UniqueStringState(CharSink bld) {
+            this.bld = bld;
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the UTF-16 code units appended to it.
+     */
+    private static final class FingerprintSink implements CharSink {
+        private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+        private static final long PRIME = 0x100000001b3L;
+
+        long hash = OFFSET_BASIS;
+
+        @Override
+        public void append(CharSequence chars) {
+            long h = hash;
+            for (int i = 0; i < chars.length(); ++i) {
+                char c = chars.charAt(i);
+                h = (h ^ (c & 0xFF)) * PRIME;
+                h = (h ^ (c >>> 8)) * PRIME;
+            }
+            hash = h;
+        }
+    }
+
     private static final Logger LOG = LoggerFactory.getLogger(Util.class);
 
-    private static SimpleTypeVisitor7<Void, StringBuilderAndState<TypeMirror>> toUniqueStringVisitor = new SimpleTypeVisitor7<Void, StringBuilderAndState<TypeMirror>>() {
+    private static SimpleTypeVisitor7<Void, UniqueStringState> toUniqueStringVisitor = new SimpleTypeVisitor7<Void, UniqueStringState>() {
 
         @Override
-        public Void visitPrimitive(PrimitiveType t, StringBuilderAndState<TypeMirror> state) {
+        public Void visitPrimitive(PrimitiveType t, UniqueStringState state) {
             switch (t.getKind()) {
             case BOOLEAN:
                 state.bld.append("boolean");
@@ -113,14 +153,14 @@ public final class Util {
         }
 
         @Override
-        public Void visitArray(ArrayType t, StringBuilderAndState<TypeMirror> bld) {
+        public Void visitArray(ArrayType t, UniqueStringState bld) {
             IgnoreCompletionFailures.in(t::getComponentType).accept(this, bld);
             bld.bld.append("[]");
             return null;
         }
 
         @Override
-        public Void visitIntersection(IntersectionType t, StringBuilderAndState<TypeMirror> state) {
+        public Void visitIntersection(IntersectionType t, UniqueStringState state) {
             List<? extends TypeMirror> bounds = IgnoreCompletionFailures.in(t::getBounds);
             if (state.visitingMethod) {
                 //the type erasure of an intersection type is the first type
@@ -138,7 +178,7 @@ public final class Util {
         }
 
         @Override
-        public Void visitTypeVariable(TypeVariable t, StringBuilderAndState<TypeMirror> state) {
+        public Void visitTypeVariable(TypeVariable t, UniqueStringState state) {
             if (state.visitingMethod) {
                 TypeMirror upperBound = IgnoreCompletionFailures.in(t::getUpperBound);
                 upperBound.accept(this, state);
@@ -165,7 +205,7 @@ public final class Util {
         }
 
         @Override
-        public Void visitWildcard(WildcardType t, StringBuilderAndState<TypeMirror> state) {
+        public Void visitWildcard(WildcardType t, UniqueStringState state) {
             TypeMirror extendsBound = IgnoreCompletionFailures.in(t::getExtendsBound);
 
             if (state.visitingMethod) {
@@ -195,7 +235,7 @@ public final class Util {
         }
 
         @Override
-        public Void visitExecutable(ExecutableType t, StringBuilderAndState<TypeMirror> state) {
+        public Void visitExecutable(ExecutableType t, UniqueStringState state) {
             state.bld.append("(");
 
             //we will be producing the erased type of the method, because that's what uniquely identifies it
@@ -217,7 +257,7 @@ public final class Util {
         }
 
         @Override
-        public Void visitNoType(NoType t, StringBuilderAndState<TypeMirror> state) {
+        public Void visitNoType(NoType t, UniqueStringState state) {
             switch (t.getKind()) {
             case VOID:
                 state.bld.append("void");
@@ -233,7 +273,7 @@ public final class Util {
         }
 
         @Override
-        public Void visitDeclared(DeclaredType t, StringBuilderAndState<TypeMirror> state) {
+        public Void visitDeclared(DeclaredType t, UniqueStringState state) {
             CharSequence name = ((TypeElement) t.asElement()).getQualifiedName();
             state.bld.append(name);
 
@@ -245,13 +285,13 @@ public final class Util {
         }
 
         @Override
-        public Void visitError(ErrorType t, StringBuilderAndState<TypeMirror> state) {
+        public Void visitError(ErrorType t, UniqueStringState state) {
             //the missing types are like declared types but don't have any further info on them apart from the name...
             state.bld.append(((TypeElement) t.asElement()).getQualifiedName());
             return null;
         }
 
-        private void visitTypeVars(List<? extends TypeMirror> vars, StringBuilderAndState<TypeMirror> state) {
+        private void visitTypeVars(List<? extends TypeMirror> vars, UniqueStringState state) {
             if (!vars.isEmpty()) {
                 state.bld.append("<");
                 Iterator<? extends TypeMirror> it = vars.iterator();
@@ -700,6 +740,68 @@ public final class Util {
         }
     };
 
+    /**
+     * Mirrors {@link #isEqual(AnnotationValue, AnnotationValue)}. Each part is tagged and the strings are prefixed
+     * by their length so that different values can't end up with the same encoding.
+     */
+    private static final SimpleAnnotationValueVisitor7<Void, StringBuilder> canonicalStringVisitor =
+            new SimpleAnnotationValueVisitor7<Void, StringBuilder>() {
+
+        @Override
+        protected Void defaultAction(Object o, StringBuilder bld) {
+            //the primitive values and strings are compared using equals(), which also compares their classes
+            bld.append('V');
+            appendLengthPrefixed(bld, o.getClass().getName());
+            appendLengthPrefixed(bld, o.toString());
+            return null;
+        }
+
+        @Override
+        public Void visitType(TypeMirror t, StringBuilder bld) {
+            bld.append('T');
+            appendLengthPrefixed(bld, toUniqueString(t));
+            return null;
+        }
+
+        @Override
+        public Void visitEnumConstant(VariableElement c, StringBuilder bld) {
+            bld.append('E');
+            appendLengthPrefixed(bld, c.getSimpleName().toString());
+            return null;
+        }
+
+        @Override
+        public Void visitAnnotation(AnnotationMirror a, StringBuilder bld) {
+            bld.append('@');
+            appendLengthPrefixed(bld, toUniqueString(a.getAnnotationType()));
+
+            Map<String, Map.Entry<? extends ExecutableElement, ? extends AnnotationValue>> attributes =
+                    new TreeMap<>(keyAnnotationAttributesByName(a.getElementValues()));
+
+            bld.append(attributes.size()).append(':');
+            for (Map.Entry<String, Map.Entry<? extends ExecutableElement, ? extends AnnotationValue>> e
+                    : attributes.entrySet()) {
+                appendLengthPrefixed(bld, e.getKey());
+                //the attributes of the nested annotations are compared by their unique strings
+                appendLengthPrefixed(bld, toUniqueString(e.getValue().getValue()));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitArray(List<? extends AnnotationValue> vals, StringBuilder bld) {
+            bld.append('[').append(vals.size()).append(':');
+            for (AnnotationValue v : vals) {
+                v.accept(this, bld);
+            }
+            return null;
+        }
+
+        private void appendLengthPrefixed(StringBuilder bld, String str) {
+            bld.append(str.length()).append(':').append(str);
+        }
+    };
+
     private Util() {
 
     }
@@ -740,9 +842,26 @@ public final class Util {
      */
     @Nonnull
     public static String toUniqueString(@Nonnull TypeMirror t) {
-        StringBuilderAndState<TypeMirror> state = new StringBuilderAndState<>();
-        t.accept(toUniqueStringVisitor, state);
-        return state.bld.toString();
+        StringBuilder bld = new StringBuilder();
+        t.accept(toUniqueStringVisitor, new UniqueStringState(bld::append));
+        return bld.toString();
+    }
+
+    /**
+     * Computes a 64-bit fingerprint of the type that is consistent with {@link #toUniqueString(TypeMirror)}, i.e. types
+     * with equal unique strings have equal fingerprints. The fingerprint is computed without building the unique string.
+     *
+     * <p>Types with different fingerprints are guaranteed to be different. Equal fingerprints make the types equal with
+     * a very high probability, so if a collision is not acceptable, the unique strings need to be compared, too.
+     *
+     * @param t the type to compute the fingerprint of
+     * @return the fingerprint of the type
+     * @since 0.14.1
+     */
+    public static long fingerprint(@Nonnull TypeMirror t) {
+        FingerprintSink sink = new FingerprintSink();
+        t.accept(toUniqueStringVisitor, new UniqueStringState(sink));
+        return sink.hash;
     }
 
     @Nonnull
@@ -915,6 +1034,26 @@ public final class Util {
         return result;
     }
 
+    /**
+     * Encodes the annotation value into a string that can be used for equality comparisons of the values from
+     * different compilations. Two values have equal canonical strings if and only if they are equal according to
+     * {@link #isEqual(AnnotationValue, AnnotationValue)}.
+     *
+     * <p>Unlike the human readable representation, the canonical string distinguishes between the types of the
+     * primitive values and doesn't depend on the order in which the attributes of the nested annotations are
+     * specified. It is not meant to be displayed.
+     *
+     * @param value the annotation value to encode
+     * @return the canonical representation of the value
+     * @since 0.14.1
+     */
+    @Nonnull
+    public static String toCanonicalString(@Nonnull AnnotationValue value) {
+        StringBuilder bld = new StringBuilder();
+        value.accept(canonicalStringVisitor, bld);
+        return bld.toString();
+    }
+
     public static boolean isEqual(@Nonnull AnnotationValue oldVal, @Nonnull AnnotationValue newVal) {
         return oldVal.accept(new SimpleAnnotationValueVisitor7<Boolean, Object>() {
 
@@ -1015,63 +1154,96 @@ public final class Util {
      * be able to find some classes if there are conflicts in the canonical names (but that theoretically cannot happen
      * because the compiler should refuse to compile code with conflicting canonical names).
      *
+     * <p>The name is resolved from left to right. Each {@code $} in the simple name can either separate the top level
+     * class from its member class or be a part of the name of the top level class, so each such prefix is looked up
+     * once and the rest of the name is then matched against the names of the member classes.
+     *
+     * <p>For a simple name with {@code n} dollars, the Elements helper is asked for at most {@code n + 1} types: one
+     * for each prefix ending before a dollar and one for the whole name. This is important because each lookup of
+     * a non-existent class can be expensive. The matching of the member classes doesn't ask the Elements helper for
+     * any more types. Each member class is tried at most once for each of the {@code n} positions after a dollar,
+     * so in the worst case the matching takes time proportional to {@code n} times the number of the member classes
+     * (at any depth) of the found top level classes.
+     *
      * @param elements   the elements instance to search the classpath
      * @param binaryName the binary name of the class
      *
      * @return the type element with given binary name
      */
     public static TypeElement findTypeByBinaryName(Elements elements, String binaryName) {
-        return findTypeByBinaryName(elements, binaryName, 0);
-    }
-
-    private static TypeElement findTypeByBinaryName(Elements elements, String binaryName, int swapStartPos) {
-        TypeElement ret;
-
-        String attemptedName = binaryName;
+        int simpleNameStart = binaryName.lastIndexOf('.') + 1;
 
         //this is optimized for the most common scenario of classes having no $ in their names...
-        if (swapStartPos >= binaryName.length()) {
-            return null;
-        }
-
-        if (attemptedName.indexOf('$', swapStartPos) == -1) {
-            return elements.getTypeElement(attemptedName);
+        int dollarPos = binaryName.indexOf('$', simpleNameStart);
+        if (dollarPos == -1) {
+            return elements.getTypeElement(binaryName);
         }
 
-        int dollarPos = swapStartPos;
+        Set<String> unmatched = new HashSet<>(4);
         while (true) {
-            final String tmp = attemptedName;
+            String topLevelName = dollarPos == -1 ? binaryName : binaryName.substring(0, dollarPos);
+
+            //a dollar at the start of the simple name cannot separate the top level class from a member class
+            if (dollarPos != simpleNameStart) {
+                //Javac can have real trouble trying to initialize member classes... Let's guard for that here...
+                TypeElement topLevel = returnNullOnException(() -> elements.getTypeElement(topLevelName));
+                if (topLevel != null) {
+                    if (dollarPos == -1) {
+                        return topLevel;
+                    }
 
-            //Javac can have real trouble trying to initialize member classes... Let's guard for that here...
-            if ((ret = returnNullOnException(() -> elements.getTypeElement(tmp))) == null) {
-                break;
+                    TypeElement ret = findMemberType(topLevel, binaryName, dollarPos + 1, unmatched);
+                    if (ret != null) {
+                        return ret;
+                    }
+                }
             }
 
-            dollarPos = attemptedName.indexOf('$', dollarPos);
             if (dollarPos == -1) {
-                break;
+                return null;
             }
 
-            if (dollarPos < binaryName.length()) {
-                attemptedName = attemptedName.substring(0, dollarPos) + "." + attemptedName.substring(dollarPos + 1);
-            }
+            dollarPos = binaryName.indexOf('$', dollarPos + 1);
+        }
+    }
+
+    /**
+     * Finds the member class of the provided type whose binary name is the rest of the provided binary name starting
+     * at the given position. The combinations of the types and the positions that didn't match anything are
+     * remembered in the provided set so that each is only ever tried once.
+     */
+    private static TypeElement findMemberType(TypeElement type, String binaryName, int start, Set<String> unmatched) {
+        String key = start + ":" + type.getQualifiedName();
+        if (unmatched.contains(key)) {
+            return null;
         }
 
-        if (ret == null) {
-            //ok, we need to try if there isn't a match with a dollar on the current position...
-            dollarPos = binaryName.indexOf('$', swapStartPos);
-            if (dollarPos != -1) {
-                ret = findTypeByBinaryName(elements, binaryName, dollarPos + 1);
+        List<? extends Element> enclosed = returnNullOnException(type::getEnclosedElements);
+        if (enclosed != null) {
+            for (Element e : enclosed) {
+                if (!e.getKind().isClass() && !e.getKind().isInterface()) {
+                    continue;
+                }
+
+                String name = e.getSimpleName().toString();
+                if (name.isEmpty() || !binaryName.startsWith(name, start)) {
+                    continue;
+                }
 
-                if (ret == null) {
-                    //still nothing, so let's try a dot instead of a dollar on the current position
-                    binaryName = binaryName.substring(0, dollarPos) + "." + binaryName.substring(dollarPos + 1);
-                    ret = findTypeByBinaryName(elements, binaryName, swapStartPos + 1);
+                int end = start + name.length();
+                if (end == binaryName.length()) {
+                    return (TypeElement) e;
+                } else if (binaryName.charAt(end) == '$') {
+                    TypeElement ret = findMemberType((TypeElement) e, binaryName, end + 1, unmatched);
+                    if (ret != null) {
+                        return ret;
+                    }
                 }
             }
         }
 
-        return ret;
+        unmatched.add(key);
+        return null;
     }
 
     private static <T> T returnNullOnException(Callable<T> call) {
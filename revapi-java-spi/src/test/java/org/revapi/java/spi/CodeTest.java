@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package org.revapi.java.spi;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Lukas Krejci
+ * @since 0.14.1
+ */
+public class CodeTest {
+
+    private static final String[] SAMPLE_ARGUMENTS = {"java.lang.String", "'quoted'", "{0}", "a, b", "",
+            "java.util.Map<K, V>", "$", "\\", "7", "last"};
+
+    @Test
+    public void testAllDescriptionsFormattedLikeMessageFormat() throws Exception {
+        ResourceBundle descriptions = ResourceBundle.getBundle("org.revapi.java.checks.descriptions", Locale.ENGLISH);
+
+        Assert.assertFalse(descriptions.keySet().isEmpty());
+
+        for (String key : descriptions.keySet()) {
+            String pattern = descriptions.getString(key);
+
+            assertDescriptionFormattedLikeMessageFormat(key, pattern, SAMPLE_ARGUMENTS);
+            assertDescriptionFormattedLikeMessageFormat(key, pattern, "only one");
+            assertDescriptionFormattedLikeMessageFormat(key, pattern);
+            assertDescriptionFormattedLikeMessageFormat(key, pattern, (String[]) null);
+            assertDescriptionFormattedLikeMessageFormat(key, pattern, null, null, null, null, null);
+        }
+    }
+
+    @Test
+    public void testQuotedBraces() throws Exception {
+        assertFormattedLikeMessageFormat("'{0}' is {0}", "a");
+        assertFormattedLikeMessageFormat("'{'{0}'}'", "a");
+        assertFormattedLikeMessageFormat("'{0} {1}' {1}", "a", "b");
+        assertFormattedLikeMessageFormat("unterminated '{0}", "a");
+        assertFormattedLikeMessageFormat("lone } brace {0}", "a");
+    }
+
+    @Test
+    public void testEscapedQuotes() throws Exception {
+        assertFormattedLikeMessageFormat("''{0}''", "a");
+        assertFormattedLikeMessageFormat("it''s {0}", "a");
+        assertFormattedLikeMessageFormat("'it''s {0}'", "a");
+        assertFormattedLikeMessageFormat("''''{0}''''", "a");
+        assertFormattedLikeMessageFormat("''", "a");
+    }
+
+    @Test
+    public void testMissingArguments() throws Exception {
+        assertFormattedLikeMessageFormat("{0} {1} {2}", "a");
+        assertFormattedLikeMessageFormat("{1} and {10}", "a", "b");
+        assertFormattedLikeMessageFormat("{0}");
+        assertFormattedLikeMessageFormat("{0}", (String[]) null);
+    }
+
+    @Test
+    public void testNullArguments() throws Exception {
+        assertFormattedLikeMessageFormat("{0} {1}", null, "b");
+        assertFormattedLikeMessageFormat("''{0}''", (String) null);
+    }
+
+    @Test
+    public void testRepeatedAndReorderedArguments() throws Exception {
+        assertFormattedLikeMessageFormat("{1}{0}{1}", "a", "b");
+        assertFormattedLikeMessageFormat("{00} {01}", "a", "b");
+        assertFormattedLikeMessageFormat("", "a");
+        assertFormattedLikeMessageFormat("no arguments", "a");
+    }
+
+    @Test
+    public void testFormattedArgumentsLeftToMessageFormat() throws Exception {
+        //the strings cannot be formatted as numbers, but the missing and null arguments can
+        assertFormattedLikeMessageFormat("{0,number} of {1,choice,0#none|1#one}");
+        assertFormattedLikeMessageFormat("{0,number} of {1,choice,0#none|1#one}", null, null);
+        assertFormattedLikeMessageFormat("'{0}' {1, number} {0}", "a");
+    }
+
+    @Test
+    public void testInvalidPatternsFailLikeMessageFormat() throws Exception {
+        for (String pattern : new String[]{"{0", "{}", "{a}", "{-1}"}) {
+            try {
+                MessageFormat.format(pattern, "a");
+                Assert.fail("MessageFormat should reject " + pattern);
+            } catch (IllegalArgumentException e) {
+                //expected
+            }
+
+            try {
+                Code.MessageTemplate.parse(pattern).format("a");
+                Assert.fail("The template should reject " + pattern);
+            } catch (IllegalArgumentException e) {
+                //expected
+            }
+        }
+    }
+
+    private static void assertFormattedLikeMessageFormat(String pattern, String... arguments) {
+        assertDescriptionFormattedLikeMessageFormat(pattern, pattern, arguments);
+    }
+
+    private static void assertDescriptionFormattedLikeMessageFormat(String message, String pattern,
+                                                                    String... arguments) {
+        String expected = MessageFormat.format(pattern, (Object[]) arguments);
+        String actual = Code.MessageTemplate.parse(pattern).format(arguments);
+
+        Assert.assertEquals(message, expected, actual);
+    }
+}
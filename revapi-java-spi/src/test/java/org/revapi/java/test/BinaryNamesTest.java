@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package org.revapi.java.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.revapi.java.spi.Util;
+import org.revapi.java.test.support.Jar;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Lukas Krejci
+ * @since 0.14.1
+ */
+public class BinaryNamesTest {
+
+    @Rule
+    public Jar jar = new Jar();
+
+    private Jar.Environment env;
+
+    @Before
+    public void compile() throws Exception {
+        env = jar.from().classPathSources(null, "BinaryNames.java").build().analyze();
+    }
+
+    @Test
+    public void testTopLevelClassWithoutDollars() throws Exception {
+        assertFound("BinaryNames", "BinaryNames");
+        Assert.assertNull(Util.findTypeByBinaryName(env.elements(), "Nothing"));
+    }
+
+    @Test
+    public void testTopLevelClassWithDollarInName() throws Exception {
+        assertFound("Top$Level", "Top$Level");
+        assertFound("Top$Level.Member", "Top$Level$Member");
+        Assert.assertNull(Util.findTypeByBinaryName(env.elements(), "Top$Level$Missing"));
+    }
+
+    @Test
+    public void testSimpleNameStartingWithDollar() throws Exception {
+        assertFound("$Start", "$Start");
+        assertFound("$Start.$Member", "$Start$$Member");
+        assertFound("BinaryNames.$Dollar", "BinaryNames$$Dollar");
+    }
+
+    @Test
+    public void testMemberClassWithDollarInName() throws Exception {
+        assertFound("BinaryNames.Member$With$Dollars", "BinaryNames$Member$With$Dollars");
+        assertFound("BinaryNames.Member$With$Dollars.Nested", "BinaryNames$Member$With$Dollars$Nested");
+        Assert.assertNull(Util.findTypeByBinaryName(env.elements(), "BinaryNames$Member$With"));
+        Assert.assertNull(Util.findTypeByBinaryName(env.elements(), "BinaryNames$Member$With$Dollars$Missing"));
+    }
+
+    @Test
+    public void testDeeplyNestedClass() throws Exception {
+        assertFound("BinaryNames.A.B.C.D", "BinaryNames$A$B$C$D");
+        Assert.assertNull(Util.findTypeByBinaryName(env.elements(), "BinaryNames$A$B$D"));
+    }
+
+    @Test
+    public void testAnonymousAndLocalClassesNotFound() throws Exception {
+        Assert.assertNull(Util.findTypeByBinaryName(env.elements(), "BinaryNames$1"));
+        Assert.assertNull(Util.findTypeByBinaryName(env.elements(), "BinaryNames$1Local"));
+    }
+
+    @Test
+    public void testTopLevelLookupsBoundedByDollars() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        Elements counting = (Elements) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Elements.class}, (proxy, method, args) -> {
+                    if ("getTypeElement".equals(method.getName())) {
+                        lookups.incrementAndGet();
+                    }
+
+                    try {
+                        return method.invoke(env.elements(), args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+
+        //the member classes are found without asking for any other top level class
+        Assert.assertNotNull(Util.findTypeByBinaryName(counting, "BinaryNames$A$B$C$D"));
+        Assert.assertEquals(1, lookups.get());
+
+        //at most one lookup per dollar plus the whole name
+        lookups.set(0);
+        Assert.assertNull(Util.findTypeByBinaryName(counting, "BinaryNames$A$B$C$Missing"));
+        Assert.assertTrue(lookups.get() <= 5);
+    }
+
+    private void assertFound(String canonicalName, String binaryName) {
+        TypeElement type = Util.findTypeByBinaryName(env.elements(), binaryName);
+
+        Assert.assertNotNull(binaryName, type);
+        Assert.assertEquals(canonicalName, type.getQualifiedName().toString());
+        Assert.assertEquals(binaryName, env.elements().getBinaryName(type).toString());
+    }
+}
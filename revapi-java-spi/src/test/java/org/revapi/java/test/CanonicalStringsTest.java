@@ -0,0 +1,155 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package org.revapi.java.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.revapi.java.spi.Util;
+import org.revapi.java.test.support.Jar;
+
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import java.util.List;
+
+/**
+ * @author Lukas Krejci
+ * @since 0.14.1
+ */
+public class CanonicalStringsTest {
+
+    @Rule
+    public Jar jar = new Jar();
+
+    private Jar.Environment oldEnv;
+    private Jar.Environment newEnv;
+
+    @Before
+    public void compile() throws Exception {
+        oldEnv = jar.from().classPathSources(null, "AnnotationValues.java").build().analyze();
+        newEnv = jar.from().classPathSources(null, "AnnotationValues.java").build().analyze();
+    }
+
+    @Test
+    public void testCanonicalStringsEqualIffValuesEqual() throws Exception {
+        List<VariableElement> oldFields = fields(oldEnv);
+        List<VariableElement> newFields = fields(newEnv);
+
+        Assert.assertEquals(oldFields.size(), newFields.size());
+
+        for (VariableElement o : oldFields) {
+            for (VariableElement n : newFields) {
+                AnnotationValue ov = value(o);
+                AnnotationValue nv = value(n);
+
+                String message = o.getSimpleName() + " vs. " + n.getSimpleName();
+                Assert.assertEquals(message, Util.isEqual(ov, nv),
+                        Util.toCanonicalString(ov).equals(Util.toCanonicalString(nv)));
+
+                if (o.getSimpleName().contentEquals(n.getSimpleName())) {
+                    Assert.assertNotSame(ov, nv);
+                    Assert.assertTrue(message, Util.isEqual(ov, nv));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPrimitiveTypesDistinguished() throws Exception {
+        assertDifferent("intOne", "longOne");
+        assertDifferent("intOne", "intTwo");
+        assertDifferent("floatOne", "doubleOne");
+        assertDifferent("intOne", "charOne");
+        assertDifferent("intOne", "stringOne");
+    }
+
+    @Test
+    public void testSpecialFloatingPointValues() throws Exception {
+        assertSame("nan", "nan");
+        assertSame("nan", "computedNan");
+        assertSame("negativeZero", "negativeZero");
+        assertDifferent("negativeZero", "positiveZero");
+    }
+
+    @Test
+    public void testEnumConstants() throws Exception {
+        assertSame("enumField", "enumField");
+        assertDifferent("enumField", "enumMethod");
+    }
+
+    @Test
+    public void testClassLiterals() throws Exception {
+        assertSame("classString", "classString");
+        assertSame("classStringArray", "classStringArray");
+        assertDifferent("classString", "classInteger");
+        assertDifferent("classInteger", "classInt");
+        assertDifferent("classString", "classStringArray");
+    }
+
+    @Test
+    public void testNestedAnnotations() throws Exception {
+        assertSame("nestedAB", "nestedBA");
+        assertDifferent("nestedAB", "nestedA");
+        assertDifferent("nestedAB", "nestedABy");
+        assertSame("nestedClasses", "nestedClasses");
+        assertDifferent("nestedClasses", "nestedClassesReordered");
+    }
+
+    @Test
+    public void testArrays() throws Exception {
+        assertSame("ints12", "ints12");
+        assertDifferent("ints12", "ints21");
+        assertDifferent("ints12", "ints1");
+        assertDifferent("ints1", "intsEmpty");
+        assertDifferent("stringsAB", "stringsAcommaB");
+        assertDifferent("stringsAB", "stringsABEmpty");
+        assertSame("nesteds", "nestedsReordered");
+        assertDifferent("nesteds", "nestedsSwapped");
+    }
+
+    private void assertSame(String oldField, String newField) {
+        AnnotationValue ov = value(field(oldEnv, oldField));
+        AnnotationValue nv = value(field(newEnv, newField));
+
+        Assert.assertTrue(Util.isEqual(ov, nv));
+        Assert.assertEquals(Util.toCanonicalString(ov), Util.toCanonicalString(nv));
+    }
+
+    private void assertDifferent(String oldField, String newField) {
+        AnnotationValue ov = value(field(oldEnv, oldField));
+        AnnotationValue nv = value(field(newEnv, newField));
+
+        Assert.assertFalse(Util.isEqual(ov, nv));
+        Assert.assertNotEquals(Util.toCanonicalString(ov), Util.toCanonicalString(nv));
+    }
+
+    private static List<VariableElement> fields(Jar.Environment env) {
+        TypeElement cls = env.elements().getTypeElement("AnnotationValues");
+        return ElementFilter.fieldsIn(cls.getEnclosedElements());
+    }
+
+    private static VariableElement field(Jar.Environment env, String name) {
+        return fields(env).stream().filter(f -> f.getSimpleName().contentEquals(name)).findAny().get();
+    }
+
+    private static AnnotationValue value(VariableElement field) {
+        //each field is annotated with a single annotation with a single explicit attribute
+        return field.getAnnotationMirrors().get(0).getElementValues().values().iterator().next();
+    }
+}
@@ -25,6 +25,7 @@ import org.revapi.java.test.support.Jar;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.ElementFilter;
 import java.util.List;
 
@@ -52,4 +53,51 @@ public class ToStringsTest {
         Assert.assertEquals("void ToStrings::methodWithTypeParamsInMethodParams(int, ===java.util.function.Function<java.lang.String, ?>===, java.util.HashMap<?, ?>)",
                 humanReadable);
     }
+
+    @Test
+    public void testFingerprintsOfEqualTypesFromDifferentEnvironmentsAreEqual() throws Exception {
+        Jar.Environment env1 = jar.from().classPathSources(null, "ToStrings.java").build().analyze();
+        Jar.Environment env2 = jar.from().classPathSources(null, "ToStrings.java").build().analyze();
+
+        List<? extends VariableElement> params1 = getMethod(env1).getParameters();
+        List<? extends VariableElement> params2 = getMethod(env2).getParameters();
+
+        for (int i = 0; i < params1.size(); ++i) {
+            TypeMirror t1 = params1.get(i).asType();
+            TypeMirror t2 = params2.get(i).asType();
+
+            Assert.assertNotSame(t1, t2);
+            Assert.assertEquals(Util.toUniqueString(t1), Util.toUniqueString(t2));
+            Assert.assertEquals(Util.fingerprint(t1), Util.fingerprint(t2));
+        }
+
+        TypeMirror m1 = getMethod(env1).asType();
+        TypeMirror m2 = getMethod(env2).asType();
+        Assert.assertNotSame(m1, m2);
+        Assert.assertEquals(Util.toUniqueString(m1), Util.toUniqueString(m2));
+        Assert.assertEquals(Util.fingerprint(m1), Util.fingerprint(m2));
+    }
+
+    @Test
+    public void testFingerprintsOfDifferentTypesDiffer() throws Exception {
+        Jar.Environment env = jar.from().classPathSources(null, "ToStrings.java").build().analyze();
+
+        ExecutableElement method = getMethod(env);
+        List<? extends VariableElement> params = method.getParameters();
+
+        TypeMirror primitive = params.get(0).asType();
+        TypeMirror function = params.get(1).asType();
+        TypeMirror hashMap = params.get(2).asType();
+        TypeMirror rawHashMap = env.types().erasure(hashMap);
+
+        Assert.assertNotEquals(Util.fingerprint(primitive), Util.fingerprint(function));
+        Assert.assertNotEquals(Util.fingerprint(function), Util.fingerprint(hashMap));
+        Assert.assertNotEquals(Util.fingerprint(rawHashMap), Util.fingerprint(hashMap));
+        Assert.assertNotEquals(Util.fingerprint(method.asType()), Util.fingerprint(hashMap));
+    }
+
+    private static ExecutableElement getMethod(Jar.Environment env) {
+        Element cls = env.elements().getTypeElement("ToStrings");
+        return ElementFilter.methodsIn(cls.getEnclosedElements()).get(0);
+    }
 }
@@ -0,0 +1,59 @@
+import java.lang.annotation.ElementType;
+
+public class AnnotationValues {
+
+    public @interface Values {
+        int i() default 0;
+        long l() default 0;
+        float f() default 0;
+        double d() default 0;
+        char c() default ' ';
+        String s() default "";
+        ElementType e() default ElementType.TYPE;
+        Class<?> cls() default Object.class;
+        Nested nested() default @Nested;
+        int[] ints() default {};
+        String[] strings() default {};
+        Nested[] nesteds() default {};
+    }
+
+    public @interface Nested {
+        int a() default 0;
+        String b() default "";
+        Class<?>[] c() default {};
+    }
+
+    @Values(i = 1) public int intOne;
+    @Values(l = 1) public int longOne;
+    @Values(i = 2) public int intTwo;
+    @Values(f = 1) public int floatOne;
+    @Values(d = 1) public int doubleOne;
+    @Values(c = '1') public int charOne;
+    @Values(s = "1") public int stringOne;
+    @Values(d = Double.NaN) public int nan;
+    @Values(d = 0.0 / 0.0) public int computedNan;
+    @Values(d = -0.0) public int negativeZero;
+    @Values(d = 0.0) public int positiveZero;
+    @Values(e = ElementType.FIELD) public int enumField;
+    @Values(e = ElementType.METHOD) public int enumMethod;
+    @Values(cls = String.class) public int classString;
+    @Values(cls = Integer.class) public int classInteger;
+    @Values(cls = int.class) public int classInt;
+    @Values(cls = String[].class) public int classStringArray;
+    @Values(nested = @Nested(a = 1, b = "x")) public int nestedAB;
+    @Values(nested = @Nested(b = "x", a = 1)) public int nestedBA;
+    @Values(nested = @Nested(a = 1)) public int nestedA;
+    @Values(nested = @Nested(a = 1, b = "y")) public int nestedABy;
+    @Values(nested = @Nested(c = {String.class, Integer.class})) public int nestedClasses;
+    @Values(nested = @Nested(c = {Integer.class, String.class})) public int nestedClassesReordered;
+    @Values(ints = {1, 2}) public int ints12;
+    @Values(ints = {2, 1}) public int ints21;
+    @Values(ints = {1}) public int ints1;
+    @Values(ints = {}) public int intsEmpty;
+    @Values(strings = {"a", "b"}) public int stringsAB;
+    @Values(strings = {"a,b"}) public int stringsAcommaB;
+    @Values(strings = {"a", "b", ""}) public int stringsABEmpty;
+    @Values(nesteds = {@Nested(a = 1, b = "x"), @Nested}) public int nesteds;
+    @Values(nesteds = {@Nested(b = "x", a = 1), @Nested}) public int nestedsReordered;
+    @Values(nesteds = {@Nested, @Nested(a = 1, b = "x")}) public int nestedsSwapped;
+}
@@ -0,0 +1,41 @@
+public class BinaryNames {
+
+    public static class Member$With$Dollars {
+        public static class Nested {
+        }
+    }
+
+    public static class A {
+        public static class B {
+            public static class C {
+                public static class D {
+                }
+            }
+        }
+    }
+
+    public static class $Dollar {
+    }
+
+    public Object anonymous() {
+        return new Object() {
+        };
+    }
+
+    public Object local() {
+        class Local {
+        }
+
+        return new Local();
+    }
+}
+
+class Top$Level {
+    static class Member {
+    }
+}
+
+class $Start {
+    static class $Member {
+    }
+}
@@ -41,8 +41,10 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
 import java.util.jar.JarOutputStream;
 import java.util.zip.ZipEntry;
@@ -95,6 +97,8 @@ public class Jar implements TestRule {
     private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
 
     private Map<File, Semaphore> compiledStuff = new HashMap<>();
+    //the compilations of the probes run until they are released in the clean up and write to the directories we delete
+    private Map<File, Future<?>> probeCompilations = new HashMap<>();
 
     private ExecutorService compileProcess = Executors.newCachedThreadPool();
 
@@ -353,7 +357,7 @@ public class Jar implements TestRule {
                 }
             }));
 
-            compileProcess.submit(task);
+            Future<?> probeCompilation = compileProcess.submit(task);
 
             try {
                 initSemaphore.acquire();
@@ -363,6 +367,7 @@ public class Jar implements TestRule {
             }
 
             compiledStuff.put(jarFile.getParentFile(), cleanUpSemaphore);
+            probeCompilations.put(jarFile.getParentFile(), probeCompilation);
 
             return ret;
         }
@@ -381,6 +386,18 @@ public class Jar implements TestRule {
                 e.getValue().release();
             }
 
+            Future<?> probeCompilation = probeCompilations.remove(e.getKey());
+            if (probeCompilation != null) {
+                try {
+                    probeCompilation.get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Thread interrupted");
+                } catch (ExecutionException ex) {
+                    throw new IllegalStateException("Failed to compile the probe", ex.getCause());
+                }
+            }
+
             Files.walkFileTree(e.getKey().toPath(), new SimpleFileVisitor<Path>() {
                 @Override
                 public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
@@ -16,6 +16,7 @@
 
 package org.revapi.java;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
@@ -37,12 +38,23 @@ public final class AnalysisConfiguration {
     private final Set<Pattern> classExclusionFilters;
     private final Set<Pattern> packageInclusionFilters;
     private final Set<Pattern> packageExclusionFilters;
+    private final File profileFile;
 
     public AnalysisConfiguration(MissingClassReporting missingClassReporting, Set<String> useReportingCodes,
                                  boolean ignoreMissingAnnotations,
                                  Set<Pattern> classInclusionFilters,
                                  Set<Pattern> classExclusionFilters,
                                  Set<Pattern> packageInclusionFilters, Set<Pattern> packageExclusionFilters) {
+        this(missingClassReporting, useReportingCodes, ignoreMissingAnnotations, classInclusionFilters,
+                classExclusionFilters, packageInclusionFilters, packageExclusionFilters, null);
+    }
+
+    public AnalysisConfiguration(MissingClassReporting missingClassReporting, Set<String> useReportingCodes,
+                                 boolean ignoreMissingAnnotations,
+                                 Set<Pattern> classInclusionFilters,
+                                 Set<Pattern> classExclusionFilters,
+                                 Set<Pattern> packageInclusionFilters, Set<Pattern> packageExclusionFilters,
+                                 File profileFile) {
         this.missingClassReporting = missingClassReporting;
         this.useReportingCodes = useReportingCodes;
         this.ignoreMissingAnnotations = ignoreMissingAnnotations;
@@ -50,12 +62,14 @@ public final class AnalysisConfiguration {
         this.classExclusionFilters = classExclusionFilters;
         this.packageInclusionFilters = packageInclusionFilters;
         this.packageExclusionFilters = packageExclusionFilters;
+        this.profileFile = profileFile;
     }
 
     public static AnalysisConfiguration fromModel(ModelNode node) {
         MissingClassReporting reporting = readMissingClassReporting(node);
         Set<String> useReportingCodes = readUseReportingCodes(node);
         boolean ignoreMissingAnnotations = readIgnoreMissingAnnotations(node);
+        File profileFile = readProfileFile(node);
 
         ModelNode classesRegex = node.get("filter", "classes", "regex");
         ModelNode packagesRegex = node.get("filter", "packages", "regex");
@@ -71,7 +85,7 @@ public final class AnalysisConfiguration {
 
         return new AnalysisConfiguration(reporting, useReportingCodes,
                 ignoreMissingAnnotations, classInclusionFilters,
-                classExclusionFilters, packageInclusionFilters, packageExclusionFilters);
+                classExclusionFilters, packageInclusionFilters, packageExclusionFilters, profileFile);
     }
 
     public MissingClassReporting getMissingClassReporting() {
@@ -106,6 +120,13 @@ public final class AnalysisConfiguration {
         return packageInclusionFilters;
     }
 
+    /**
+     * @return the file to write the profile of the checks to or null if the checks should not be profiled
+     */
+    public File getProfileFile() {
+        return profileFile;
+    }
+
     private static MissingClassReporting readMissingClassReporting(ModelNode analysisConfig) {
         ModelNode config = analysisConfig.get("missing-classes", "behavior");
         if (config.isDefined()) {
@@ -134,6 +155,15 @@ public final class AnalysisConfiguration {
         return false;
     }
 
+    private static File readProfileFile(ModelNode analysisConfig) {
+        ModelNode config = analysisConfig.get("profile", "file");
+        if (config.isDefined()) {
+            return new File(config.asString());
+        }
+
+        return null;
+    }
+
     private static Set<String> readUseReportingCodes(ModelNode analysisConfig) {
         Set<String> ret = new HashSet<>(5);
         ModelNode config = analysisConfig.get("reportUsesFor");
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.java;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+import javax.lang.model.element.Element;
+import javax.lang.model.type.DeclaredType;
+
+import org.revapi.java.compilation.ProbingEnvironment;
+import org.revapi.java.model.TypeElement;
+import org.revapi.java.spi.JavaElement;
+import org.revapi.java.spi.JavaModelElement;
+import org.revapi.java.spi.JavaTypeElement;
+import org.revapi.java.spi.UseSite;
+
+/**
+ * Finds the shortest paths from the types to the primary API through their use sites.
+ *
+ * <p>The use graph of the whole environment is reversed and traversed breadth-first from all the types in the primary
+ * API at once, the first time a path is requested. Each type thus only needs to be visited once, no matter how many
+ * of the reported types share parts of their paths to the API.
+ *
+ * @author Lukas Krejci
+ * @since 0.14.5
+ */
+final class ApiUsePaths {
+    private final ProbingEnvironment environment;
+
+    private Map<JavaTypeElement, List<Edge>> outgoing;
+    private Map<JavaTypeElement, Integer> distances;
+
+    ApiUsePaths(ProbingEnvironment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Returns the shortest chain of uses that leads from the provided type to a type in the primary API. The first
+     * element of the returned list is the use of the provided type, the last element is the use in the primary API.
+     *
+     * @param type the type to find the path for
+     * @return the path to the API or null if the type is not used from the primary API (or is part of it itself)
+     */
+    @Nullable
+    List<TypeAndUseSite> getPathToApi(JavaTypeElement type) {
+        if (distances == null) {
+            computeDistances();
+        }
+
+        Integer distance = distances.get(type);
+        if (distance == null || distance == 0) {
+            return null;
+        }
+
+        List<TypeAndUseSite> path = new ArrayList<>(distance);
+        JavaTypeElement current = type;
+        while (distance > 0) {
+            //of the edges that lead closer to the API, prefer the direct uses in the order of the use sites
+            for (Edge e : outgoing.get(current)) {
+                Integer targetDistance = distances.get(e.target);
+                if (targetDistance != null && targetDistance == distance - 1) {
+                    path.add(e.step);
+                    current = e.target;
+                    distance = targetDistance;
+                    break;
+                }
+            }
+        }
+
+        return path;
+    }
+
+    private void computeDistances() {
+        outgoing = new IdentityHashMap<>();
+        Map<JavaTypeElement, List<Edge>> incoming = new IdentityHashMap<>();
+        Map<JavaTypeElement, List<TypeElement>> derivedTypes = new IdentityHashMap<>();
+        Map<JavaTypeElement, Map<Element, JavaModelElement>> childrenByDeclaration = new IdentityHashMap<>();
+
+        for (TypeElement source : environment.getTypeMap().values()) {
+            if (isPrimaryApi(source)) {
+                continue;
+            }
+
+            List<Edge> edges = new ArrayList<>();
+            DeclaredType type = source.getModelRepresentation();
+
+            for (UseSite use : source.getUseSites()) {
+                if (!use.getUseType().isMovingToApi()) {
+                    continue;
+                }
+
+                JavaTypeElement user = findClassOf(use.getSite());
+                if (user == null) {
+                    continue;
+                }
+
+                edges.add(new Edge(user, new TypeAndUseSite(type, use)));
+
+                //the use site is also inherited by the subclasses of the using class, which can be in the API even if
+                //the using class itself is not
+                if (!(use.getSite() instanceof JavaModelElement)) {
+                    continue;
+                }
+
+                Element declaration = ((JavaModelElement) use.getSite()).getDeclaringElement();
+
+                for (TypeElement derived : derivedTypes.computeIfAbsent(user, this::findDerivedTypes)) {
+                    JavaModelElement derivedSite = childrenByDeclaration.computeIfAbsent(derived,
+                            ApiUsePaths::indexChildren).get(declaration);
+
+                    if (derivedSite != null) {
+                        edges.add(new Edge(derived,
+                                new TypeAndUseSite(type, new UseSite(use.getUseType(), derivedSite))));
+                    }
+                }
+            }
+
+            outgoing.put(source, edges);
+            for (Edge e : edges) {
+                incoming.computeIfAbsent(e.target, __ -> new ArrayList<>()).add(new Edge(source, e.step));
+            }
+        }
+
+        distances = new IdentityHashMap<>();
+        Deque<JavaTypeElement> queue = new ArrayDeque<>();
+
+        for (JavaTypeElement t : incoming.keySet()) {
+            if (isPrimaryApi(t)) {
+                distances.put(t, 0);
+                queue.add(t);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            JavaTypeElement t = queue.poll();
+            int distance = distances.get(t) + 1;
+
+            for (Edge e : incoming.getOrDefault(t, Collections.emptyList())) {
+                if (!distances.containsKey(e.target)) {
+                    distances.put(e.target, distance);
+                    queue.add(e.target);
+                }
+            }
+        }
+    }
+
+    private List<TypeElement> findDerivedTypes(JavaTypeElement type) {
+        List<TypeElement> ret = new ArrayList<>();
+        Set<javax.lang.model.element.TypeElement> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<javax.lang.model.element.TypeElement> queue = new ArrayDeque<>();
+        queue.add(type.getDeclaringElement());
+
+        while (!queue.isEmpty()) {
+            for (javax.lang.model.element.TypeElement derived : environment.getDerivedTypes(queue.poll())) {
+                if (!visited.add(derived)) {
+                    continue;
+                }
+
+                queue.add(derived);
+
+                TypeElement model = environment.getTypeMap().get(derived);
+                if (model != null) {
+                    ret.add(model);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private static Map<Element, JavaModelElement> indexChildren(JavaTypeElement type) {
+        Map<Element, JavaModelElement> ret = new HashMap<>();
+        for (org.revapi.Element e : type.getChildren()) {
+            if (e instanceof JavaModelElement) {
+                ret.putIfAbsent(((JavaModelElement) e).getDeclaringElement(), (JavaModelElement) e);
+            }
+        }
+
+        return ret;
+    }
+
+    private static boolean isPrimaryApi(JavaTypeElement type) {
+        return type.isInAPI() && !type.isInApiThroughUse();
+    }
+
+    @Nullable
+    private static JavaTypeElement findClassOf(JavaElement element) {
+        while (element != null && !(element instanceof JavaTypeElement)) {
+            element = (JavaElement) element.getParent();
+        }
+
+        return (JavaTypeElement) element;
+    }
+
+    static final class TypeAndUseSite {
+        final DeclaredType type;
+        final UseSite useSite;
+
+        TypeAndUseSite(DeclaredType type, UseSite useSite) {
+            this.type = type;
+            this.useSite = useSite;
+        }
+    }
+
+    /**
+     * An edge in the use graph. The {@code target} is the using type in the forward graph and the used type in the
+     * reversed graph.
+     */
+    private static final class Edge {
+        final JavaTypeElement target;
+        final TypeAndUseSite step;
+
+        Edge(JavaTypeElement target, TypeAndUseSite step) {
+            this.target = target;
+            this.step = step;
+        }
+    }
+}
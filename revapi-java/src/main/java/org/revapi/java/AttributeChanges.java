@@ -0,0 +1,211 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.java;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Parameterizable;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeMirror;
+
+import org.revapi.java.model.AnnotationElement;
+import org.revapi.java.spi.Check;
+import org.revapi.java.spi.JavaModelElement;
+import org.revapi.java.spi.JavaTypeElement;
+import org.revapi.java.spi.TypeEnvironment;
+
+/**
+ * The attributes that changed between an old and a new element. The individual attributes are only compared when
+ * asked for and the results are remembered in a pair of bitmasks.
+ *
+ * <p>Each attribute is compared at least as strictly as the checks inspecting it compare it, so that a check is never
+ * left out for a pair it would report a difference on.
+ *
+ * @author Lukas Krejci
+ * @since 0.14.5
+ */
+final class AttributeChanges {
+    private final JavaModelElement oldElement;
+    private final JavaModelElement newElement;
+    private final TypeEnvironment oldEnvironment;
+    private final TypeEnvironment newEnvironment;
+    private int computed;
+    private int changed;
+
+    AttributeChanges(JavaModelElement oldElement, JavaModelElement newElement) {
+        this.oldElement = oldElement;
+        this.newElement = newElement;
+        this.oldEnvironment = oldElement.getTypeEnvironment();
+        this.newEnvironment = newElement.getTypeEnvironment();
+    }
+
+    /**
+     * @return true if any of the provided attributes differs between the old and the new element
+     */
+    boolean anyChanged(EnumSet<Check.Attribute> attributes) {
+        for (Check.Attribute a : attributes) {
+            if (isChanged(a)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isChanged(Check.Attribute attribute) {
+        int bit = 1 << attribute.ordinal();
+        if ((computed & bit) == 0) {
+            computed |= bit;
+            if (compare(attribute)) {
+                changed |= bit;
+            }
+        }
+
+        return (changed & bit) != 0;
+    }
+
+    private boolean compare(Check.Attribute attribute) {
+        Element oldDecl = oldElement.getDeclaringElement();
+        Element newDecl = newElement.getDeclaringElement();
+
+        switch (attribute) {
+        case KIND:
+            return oldDecl.getKind() != newDecl.getKind();
+        case MODIFIERS:
+            return !oldDecl.getModifiers().equals(newDecl.getModifiers());
+        case TYPE:
+            return isTypeChanged(oldElement.getModelRepresentation(), newElement.getModelRepresentation());
+        case TYPE_PARAMETERS:
+            return oldDecl instanceof Parameterizable && newDecl instanceof Parameterizable
+                    && !uniqueStrings(((Parameterizable) oldDecl).getTypeParameters(), oldEnvironment)
+                    .equals(uniqueStrings(((Parameterizable) newDecl).getTypeParameters(), newEnvironment));
+        case SUPER_TYPES:
+            return oldElement instanceof JavaTypeElement && newElement instanceof JavaTypeElement
+                    && (areSuperTypesChanged(oldDecl.asType(), newDecl.asType())
+                    || areSuperTypesChanged(oldElement.getModelRepresentation(), newElement.getModelRepresentation()));
+        case THROWN_TYPES:
+            return oldElement.getModelRepresentation() instanceof ExecutableType
+                    && newElement.getModelRepresentation() instanceof ExecutableType
+                    && !typeStrings(((ExecutableType) oldElement.getModelRepresentation()).getThrownTypes(),
+                    oldEnvironment).equals(
+                    typeStrings(((ExecutableType) newElement.getModelRepresentation()).getThrownTypes(),
+                            newEnvironment));
+        case CONSTANT_VALUE:
+            return oldDecl instanceof VariableElement && newDecl instanceof VariableElement
+                    && !Objects.equals(((VariableElement) oldDecl).getConstantValue(),
+                    ((VariableElement) newDecl).getConstantValue());
+        case DEFAULT_VALUE:
+            return oldDecl instanceof ExecutableElement && newDecl instanceof ExecutableElement
+                    && isDefaultValueChanged(((ExecutableElement) oldDecl).getDefaultValue(),
+                    ((ExecutableElement) newDecl).getDefaultValue());
+        case ANNOTATIONS:
+            return areAnnotationsChanged(annotations(oldElement), annotations(newElement));
+        default:
+            //an attribute we don't know how to compare has to be considered changed
+            return true;
+        }
+    }
+
+    private boolean isTypeChanged(TypeMirror oldType, TypeMirror newType) {
+        if (!oldEnvironment.toUniqueString(oldType).equals(newEnvironment.toUniqueString(newType))
+                || !oldEnvironment.toHumanReadableString(oldType).equals(newEnvironment.toHumanReadableString(newType))) {
+            return true;
+        }
+
+        //the unique string of a method only contains its erased parameters and the human readable string only contains
+        //the simple names of the type variables of the enclosing class, so let's also compare the parts separately
+        if (oldType instanceof ExecutableType && newType instanceof ExecutableType) {
+            ExecutableType oldMethod = (ExecutableType) oldType;
+            ExecutableType newMethod = (ExecutableType) newType;
+
+            return !oldEnvironment.toUniqueString(oldMethod.getReturnType())
+                    .equals(newEnvironment.toUniqueString(newMethod.getReturnType()))
+                    || !typeStrings(oldMethod.getParameterTypes(), oldEnvironment)
+                    .equals(typeStrings(newMethod.getParameterTypes(), newEnvironment));
+        }
+
+        return false;
+    }
+
+    private boolean areSuperTypesChanged(TypeMirror oldType, TypeMirror newType) {
+        return !typeStrings(oldEnvironment.getAllSuperTypes(oldType), oldEnvironment)
+                .equals(typeStrings(newEnvironment.getAllSuperTypes(newType), newEnvironment));
+    }
+
+    private boolean isDefaultValueChanged(AnnotationValue oldValue, AnnotationValue newValue) {
+        return oldValue == null || newValue == null
+                ? oldValue != newValue
+                : !oldEnvironment.toCanonicalString(oldValue).equals(newEnvironment.toCanonicalString(newValue));
+    }
+
+    private static List<String> typeStrings(List<? extends TypeMirror> types, TypeEnvironment environment) {
+        List<String> ret = new ArrayList<>(types.size());
+        for (TypeMirror t : types) {
+            ret.add(environment.toUniqueString(t));
+        }
+
+        return ret;
+    }
+
+    private static List<String> uniqueStrings(List<? extends TypeParameterElement> typeParameters,
+                                              TypeEnvironment environment) {
+        List<String> ret = new ArrayList<>(typeParameters.size());
+        for (TypeParameterElement p : typeParameters) {
+            ret.add(environment.toUniqueString(p.asType()));
+        }
+
+        return ret;
+    }
+
+    /**
+     * The annotations are compared by their fingerprints first and only the annotations with the same fingerprints
+     * are compared by their full string representations, so that a collision of the fingerprints can't hide a change.
+     */
+    private static boolean areAnnotationsChanged(List<AnnotationElement> oldAnnotations,
+                                                 List<AnnotationElement> newAnnotations) {
+        if (oldAnnotations.size() != newAnnotations.size()) {
+            return true;
+        }
+
+        for (int i = 0; i < oldAnnotations.size(); ++i) {
+            if (!oldAnnotations.get(i).isStructurallyIdentical(newAnnotations.get(i))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static List<AnnotationElement> annotations(JavaModelElement element) {
+        List<AnnotationElement> ret = new ArrayList<>(2);
+        for (org.revapi.Element c : element.getChildren()) {
+            if (c instanceof AnnotationElement) {
+                ret.add((AnnotationElement) c);
+            }
+        }
+
+        return ret;
+    }
+}
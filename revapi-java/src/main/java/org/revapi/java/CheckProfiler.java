@@ -0,0 +1,266 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.java;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import org.jboss.dmr.ModelNode;
+import org.revapi.java.spi.Check;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the number of invocations, the time spent, the number of found differences and the allocated memory of the
+ * individual checks and the number of invocations and the time spent in the difference transforms. A JSON summary of
+ * them is written to a file at the end of the analysis.
+ *
+ * <p>The checks are only ever called one at a time from the thread running the analysis, so a single pair of start
+ * time and allocated bytes is enough to measure each call. An invocation of a check consists of the visit of a pair of
+ * elements and the corresponding {@link Check#visitEnd()}. If the profiling is not enabled, all the methods do
+ * nothing.
+ *
+ * @author Lukas Krejci
+ * @since 0.14.5
+ */
+final class CheckProfiler {
+    private static final Logger LOG = LoggerFactory.getLogger(CheckProfiler.class);
+
+    private final File outputFile;
+    private final Map<Check, CheckStats> stats = new IdentityHashMap<>();
+    private final Map<Class<?>, TransformStats> transformStats = new HashMap<>();
+    private final com.sun.management.ThreadMXBean allocations;
+    private boolean allocationMeasurementEnabledByUs;
+    private long startTime;
+    private long startAllocatedBytes;
+
+    /**
+     * @param outputFile the file to write the summary to or null if the profiling is disabled
+     */
+    CheckProfiler(@Nullable File outputFile) {
+        this.outputFile = outputFile;
+        this.allocations = outputFile == null ? null : initAllocationMeasurement();
+    }
+
+    /**
+     * Marks the start of a call to a check.
+     */
+    void start() {
+        if (outputFile == null) {
+            return;
+        }
+
+        startAllocatedBytes = allocatedBytes();
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Records the visit of a pair of elements by the check that started with the last call to {@link #start()}. This
+     * starts a new invocation of the check.
+     *
+     * @param check       the check that was called
+     * @param differences the differences found by the call or null if none were found
+     */
+    void endVisit(Check check, @Nullable List<?> differences) {
+        end(check, differences, true);
+    }
+
+    /**
+     * Records the call to {@link Check#visitEnd()} that started with the last call to {@link #start()}. This is
+     * accounted to the invocation started by the last visit.
+     *
+     * @param check       the check that was called
+     * @param differences the differences found by the call or null if none were found
+     */
+    void endVisitEnd(Check check, @Nullable List<?> differences) {
+        end(check, differences, false);
+    }
+
+    /**
+     * Records an application of a difference transform.
+     *
+     * @param transform     the transform
+     * @param durationNanos the time the transform took
+     */
+    void transformApplied(Object transform, long durationNanos) {
+        if (outputFile == null) {
+            return;
+        }
+
+        TransformStats s = transformStats.computeIfAbsent(transform.getClass(), c -> new TransformStats(c.getName()));
+        s.invocations++;
+        s.totalTime += durationNanos;
+        s.maxTime = Math.max(s.maxTime, durationNanos);
+    }
+
+    private void end(Check check, @Nullable List<?> differences, boolean newInvocation) {
+        if (outputFile == null) {
+            return;
+        }
+
+        long time = System.nanoTime() - startTime;
+        long allocated = allocations == null ? 0 : allocatedBytes() - startAllocatedBytes;
+
+        CheckStats s = stats.computeIfAbsent(check, c -> new CheckStats(c.getClass().getName()));
+        if (newInvocation) {
+            s.invocations++;
+            s.currentTime = 0;
+        }
+        s.currentTime += time;
+        s.totalTime += time;
+        s.maxTime = Math.max(s.maxTime, s.currentTime);
+        s.differences += differences == null ? 0 : differences.size();
+        s.allocatedBytes += allocated;
+    }
+
+    /**
+     * Writes the summary of the recorded statistics to the output file and switches the measurement of the allocated
+     * memory off again, if it was switched on by this profiler.
+     */
+    void close() {
+        if (outputFile == null) {
+            return;
+        }
+
+        try {
+            writeSummary();
+        } finally {
+            if (allocationMeasurementEnabledByUs) {
+                try {
+                    allocations.setThreadAllocatedMemoryEnabled(false);
+                } catch (UnsupportedOperationException | SecurityException e) {
+                    LOG.debug("Could not switch off the measurement of the allocated memory.", e);
+                }
+            }
+        }
+    }
+
+    private void writeSummary() {
+
+        List<CheckStats> sorted = new ArrayList<>(stats.values());
+        sorted.sort((a, b) -> Long.compare(b.totalTime, a.totalTime));
+
+        ModelNode summary = new ModelNode();
+        summary.get("allocationsMeasured").set(allocations != null);
+        ModelNode checks = summary.get("checks").setEmptyList();
+        for (CheckStats s : sorted) {
+            ModelNode check = new ModelNode();
+            check.get("check").set(s.checkClass);
+            check.get("invocations").set(s.invocations);
+            check.get("totalTimeNanos").set(s.totalTime);
+            check.get("maxTimeNanos").set(s.maxTime);
+            check.get("differences").set(s.differences);
+            check.get("allocatedBytes").set(s.allocatedBytes);
+            checks.add(check);
+        }
+
+        List<TransformStats> sortedTransforms = new ArrayList<>(transformStats.values());
+        sortedTransforms.sort((a, b) -> Long.compare(b.totalTime, a.totalTime));
+
+        ModelNode transforms = summary.get("transforms").setEmptyList();
+        for (TransformStats s : sortedTransforms) {
+            ModelNode transform = new ModelNode();
+            transform.get("transform").set(s.transformClass);
+            transform.get("invocations").set(s.invocations);
+            transform.get("totalTimeNanos").set(s.totalTime);
+            transform.get("maxTimeNanos").set(s.maxTime);
+            transforms.add(transform);
+        }
+
+        File dir = outputFile.getAbsoluteFile().getParentFile();
+        try {
+            if (dir != null) {
+                Files.createDirectories(dir.toPath());
+            }
+
+            try (Writer wrt = Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8)) {
+                wrt.write(summary.toJSONString(false));
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to write the profile of the checks to " + outputFile + ".", e);
+        }
+    }
+
+    private long allocatedBytes() {
+        return allocations == null ? 0 : allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Nullable
+    private com.sun.management.ThreadMXBean initAllocationMeasurement() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            LOG.debug("The JVM doesn't support measuring the allocated memory. Only the time of the checks will be" +
+                    " profiled.");
+            return null;
+        }
+
+        com.sun.management.ThreadMXBean ret = (com.sun.management.ThreadMXBean) threads;
+        try {
+            if (!ret.isThreadAllocatedMemorySupported()) {
+                return null;
+            }
+
+            if (!ret.isThreadAllocatedMemoryEnabled()) {
+                ret.setThreadAllocatedMemoryEnabled(true);
+                allocationMeasurementEnabledByUs = true;
+            }
+
+            return ret;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            LOG.debug("Could not enable the measurement of the allocated memory. Only the time of the checks will be" +
+                    " profiled.", e);
+            return null;
+        }
+    }
+
+    private static final class CheckStats {
+        final String checkClass;
+        long invocations;
+        long totalTime;
+        long maxTime;
+        long differences;
+        long allocatedBytes;
+        long currentTime;
+
+        CheckStats(String checkClass) {
+            this.checkClass = checkClass;
+        }
+    }
+
+    private static final class TransformStats {
+        final String transformClass;
+        long invocations;
+        long totalTime;
+        long maxTime;
+
+        TransformStats(String transformClass) {
+            this.transformClass = transformClass;
+        }
+    }
+}
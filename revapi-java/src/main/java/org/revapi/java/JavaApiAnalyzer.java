@@ -16,8 +16,6 @@
 
 package org.revapi.java;
 
-import static java.util.stream.Collectors.toList;
-
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -34,14 +32,18 @@ import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
-import java.util.function.BiFunction;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Types;
 
 import org.jboss.dmr.ModelNode;
@@ -56,17 +58,20 @@ import org.revapi.Element;
 import org.revapi.java.compilation.CompilationValve;
 import org.revapi.java.compilation.InclusionFilter;
 import org.revapi.java.compilation.ProbingEnvironment;
+import org.revapi.java.compilation.StringPool;
 import org.revapi.java.model.JavaElementFactory;
 import org.revapi.java.model.MethodElement;
 import org.revapi.java.model.TypeElement;
 import org.revapi.java.spi.Check;
-import org.revapi.java.spi.Util;
+import org.revapi.java.spi.TypeEnvironment;
 
 /**
  * @author Lukas Krejci
  * @since 0.1
  */
 public final class JavaApiAnalyzer implements ApiAnalyzer {
+    private static final int PACKAGE_INCLUDED = 1;
+    private static final int PACKAGE_EXCLUDED = 2;
 
     private final ExecutorService compilationExecutor = Executors.newFixedThreadPool(2, new ThreadFactory() {
         private volatile int cnt;
@@ -79,6 +84,8 @@ public final class JavaApiAnalyzer implements ApiAnalyzer {
 
     private AnalysisContext analysisContext;
     private AnalysisConfiguration configuration;
+    //the old and new API share the strings
+    private StringPool strings;
     private final Iterable<Check> checks;
 
     public JavaApiAnalyzer() {
@@ -212,19 +219,29 @@ public final class JavaApiAnalyzer implements ApiAnalyzer {
                         bo = l1MethodOrder;
                     }
 
-                    for (MethodElement aMethod : as) {
+                    float[][] scores = computeMatchScores(as, bs);
+                    boolean[] matched = new boolean[bs.size()];
+
+                    for (int a = 0; a < as.size(); ++a) {
+                        MethodElement aMethod = as.get(a);
                         ao.put(aMethod, index);
                         aio.add(aMethod);
 
-                        MethodElement bMethod = removeBestMatch(aMethod, bs);
+                        int b = bestMatch(scores[a], matched);
+                        matched[b] = true;
+
+                        MethodElement bMethod = bs.get(b);
                         bo.put(bMethod, index++);
                         bio.add(bMethod);
                     }
 
                     //add the rest
-                    for (MethodElement m : bs) {
-                        bo.put(m, index++);
-                        bio.add(m);
+                    for (int b = 0; b < bs.size(); ++b) {
+                        if (!matched[b]) {
+                            MethodElement m = bs.get(b);
+                            bo.put(m, index++);
+                            bio.add(m);
+                        }
                     }
                 }
             }
@@ -264,84 +281,63 @@ public final class JavaApiAnalyzer implements ApiAnalyzer {
         elements.addAll(index, sortedMethods);
     }
 
-    private static MethodElement removeBestMatch(MethodElement blueprint, List<MethodElement> candidates) {
-        MethodElement best = null;
-        float maxScore = 0;
-        int bestIdx = -1;
-
-        List<String> fullBlueprintSignature = methodParamsSignature(blueprint, false);
-        List<String> erasedBlueprintSignature = methodParamsSignature(blueprint, true);
-
-        String fullBlueprintReturnType = Util.toUniqueString(blueprint.getModelRepresentation().getReturnType());
-        String erasedBlueprintReturnType = Util.toUniqueString(blueprint.getTypeEnvironment().getTypeUtils()
-                .erasure(blueprint.getModelRepresentation().getReturnType()));
-
-        int idx = 0;
-        for (MethodElement candidate : candidates) {
-            float score = computeMatchScore(fullBlueprintReturnType, fullBlueprintSignature,
-                    erasedBlueprintReturnType, erasedBlueprintSignature, candidate);
-            if (maxScore <= score) {
-                best = candidate;
-                maxScore = score;
-                bestIdx = idx;
-            }
-            idx++;
+    /**
+     * Computes the match scores of all the pairs of the provided overloads. The signatures of the methods are tokenized
+     * only once, so that the scoring itself only compares integers.
+     *
+     * @return the matrix of the scores, indexed by the positions of the methods in {@code as} and {@code bs}
+     */
+    private static float[][] computeMatchScores(List<MethodElement> as, List<MethodElement> bs) {
+        Map<String, Integer> tokens = new HashMap<>();
+
+        MethodSignature[] aSigs = new MethodSignature[as.size()];
+        for (int i = 0; i < aSigs.length; ++i) {
+            aSigs[i] = new MethodSignature(as.get(i), tokens);
         }
 
-        if (bestIdx != -1) {
-            candidates.remove(bestIdx);
+        MethodSignature[] bSigs = new MethodSignature[bs.size()];
+        for (int i = 0; i < bSigs.length; ++i) {
+            bSigs[i] = new MethodSignature(bs.get(i), tokens);
         }
 
-        return best;
-    }
-
-    private static List<String> methodParamsSignature(MethodElement method, boolean erased) {
-        if (erased) {
-            Types types = method.getTypeEnvironment().getTypeUtils();
-            return method.getDeclaringElement().getParameters().stream().map(p ->
-                    Util.toUniqueString(types.erasure(p.asType()))).collect(toList());
-        } else {
-            return method.getModelRepresentation().getParameterTypes().stream().map(Util::toUniqueString)
-                    .collect(toList());
+        float[][] scores = new float[aSigs.length][bSigs.length];
+        for (int a = 0; a < aSigs.length; ++a) {
+            for (int b = 0; b < bSigs.length; ++b) {
+                scores[a][b] = computeMatchScore(aSigs[a], bSigs[b]);
+            }
         }
-    }
 
-    private static float computeMatchScore(String blueprintReturnType, List<String> blueprintParamSignature,
-                                           String erasedReturnType, List<String> erasedParamSignature, MethodElement method) {
+        return scores;
+    }
 
-        String mRt = Util.toUniqueString(method.getModelRepresentation().getReturnType());
-        String emRt = Util.toUniqueString(method.getTypeEnvironment().getTypeUtils()
-                .erasure(method.getModelRepresentation().getReturnType()));
+    /**
+     * @return the index of the best scoring candidate that has not been matched yet. Of equally scoring candidates,
+     * the last one wins.
+     */
+    private static int bestMatch(float[] scores, boolean[] matched) {
+        float maxScore = 0;
+        int bestIdx = -1;
 
-        List<String> mPs = methodParamsSignature(method, false);
-        List<String> emPs = methodParamsSignature(method, true);
+        for (int i = 0; i < scores.length; ++i) {
+            if (!matched[i] && maxScore <= scores[i]) {
+                maxScore = scores[i];
+                bestIdx = i;
+            }
+        }
 
+        return bestIdx;
+    }
 
+    private static float computeMatchScore(MethodSignature blueprint, MethodSignature method) {
         //consider the return type as if it was another parameter
-        int maxParams = Math.max(blueprintParamSignature.size(), mPs.size()) + 1;
-
-        int commonParams = longestCommonSubsequenceLength(blueprintParamSignature, mPs,
-                (blueprintIndex, methodIndex) -> {
-
-                    String fullBlueprintSig = blueprintParamSignature.get(blueprintIndex);
-                    String erasedBlueprintSig = erasedParamSignature.get(blueprintIndex);
+        int maxParams = Math.max(blueprint.fullParams.length, method.fullParams.length) + 1;
 
-                    String fullMethodSig = mPs.get(methodIndex);
-                    String erasedMethodSig = emPs.get(methodIndex);
-
-                    if (fullBlueprintSig.equals(fullMethodSig)) {
-                        return 2;
-                    } else if (erasedBlueprintSig.equals(erasedMethodSig)) {
-                        return 1;
-                    } else {
-                        return 0;
-                    }
-                });
+        int commonParams = longestCommonSubsequenceLength(blueprint, method);
 
         //consider the return type as if it was another matching parameter
-        if (blueprintReturnType.equals(mRt)) {
+        if (blueprint.fullReturnType == method.fullReturnType) {
             commonParams += 2;
-        } else if (erasedReturnType.equals(emRt)) {
+        } else if (blueprint.erasedReturnType == method.erasedReturnType) {
             commonParams += 1;
         }
 
@@ -355,14 +351,23 @@ public final class JavaApiAnalyzer implements ApiAnalyzer {
         }
     }
 
-    private static int longestCommonSubsequenceLength(List<?> as, List<?> bs, BiFunction<Integer, Integer, Integer>
-            matchScoreFunction) {
-        int[][] lengths = new int[as.size() + 1][bs.size() + 1];
+    private static int longestCommonSubsequenceLength(MethodSignature as, MethodSignature bs) {
+        int aLen = as.fullParams.length;
+        int bLen = bs.fullParams.length;
+
+        int[][] lengths = new int[aLen + 1][bLen + 1];
         int maxLen = 0;
         // row 0 and column 0 are initialized to 0 already
-        for (int i = 0; i < as.size(); i++) {
-            for (int j = 0; j < bs.size(); j++) {
-                int matchScore = matchScoreFunction.apply(i, j);
+        for (int i = 0; i < aLen; i++) {
+            for (int j = 0; j < bLen; j++) {
+                int matchScore;
+                if (as.fullParams[i] == bs.fullParams[j]) {
+                    matchScore = 2;
+                } else if (as.erasedParams[i] == bs.erasedParams[j]) {
+                    matchScore = 1;
+                } else {
+                    matchScore = 0;
+                }
 
                 if (matchScore > 0) {
                     maxLen = lengths[i + 1][j + 1] = lengths[i][j] + matchScore;
@@ -449,14 +454,43 @@ public final class JavaApiAnalyzer implements ApiAnalyzer {
     public void initialize(@Nonnull AnalysisContext analysisContext) {
         this.analysisContext = analysisContext;
         this.configuration = AnalysisConfiguration.fromModel(analysisContext.getConfiguration());
+        this.strings = new StringPool();
 
         for (Check c : checks) {
-            if (c.getExtensionId() != null) {
-                ModelNode checkConfig = analysisContext.getConfiguration().get("checks", c.getExtensionId());
-                AnalysisContext checkCtx = analysisContext.copyWithConfiguration(checkConfig);
-                c.initialize(checkCtx);
+            configure(c);
+        }
+    }
+
+    private void configure(Check check) {
+        if (check.getExtensionId() != null) {
+            check.initialize(checkContext(check));
+        }
+    }
+
+    private AnalysisContext checkContext(Check check) {
+        ModelNode checkConfig = analysisContext.getConfiguration().get("checks", check.getExtensionId());
+        return analysisContext.copyWithConfiguration(checkConfig);
+    }
+
+    /**
+     * Each difference analyzer gets its own instances of the checks so that the checks are confined to the thread
+     * running the analyzer. The checks that can't create new instances are shared. The checks with an extension id
+     * are initialized with their own part of the configuration, the rest with the whole analysis context.
+     */
+    private List<Check> newCheckSet() {
+        List<Check> ret = new ArrayList<>();
+        for (Check prototype : checks) {
+            Check c = prototype.newInstance();
+            if (c == null) {
+                c = prototype;
             }
+
+            c.initialize(c.getExtensionId() == null ? analysisContext : checkContext(c));
+
+            ret.add(c);
         }
+
+        return ret;
     }
 
     @Nonnull
@@ -466,7 +500,7 @@ public final class JavaApiAnalyzer implements ApiAnalyzer {
         InclusionFilter inclusionFilter = composeInclusionFilter(configuration);
 
         return new JavaArchiveAnalyzer(api, compilationExecutor, configuration.getMissingClassReporting(),
-                ignoreMissingAnnotations, inclusionFilter);
+                ignoreMissingAnnotations, inclusionFilter, strings);
     }
 
     @Nonnull
@@ -482,7 +516,7 @@ public final class JavaApiAnalyzer implements ApiAnalyzer {
         CompilationValve newValve = newA.getCompilationValve();
 
         return new JavaElementDifferenceAnalyzer(analysisContext, oldEnvironment, oldValve, newEnvironment, newValve,
-                checks, configuration);
+                newCheckSet(), configuration);
     }
 
     @Override
@@ -491,60 +525,102 @@ public final class JavaApiAnalyzer implements ApiAnalyzer {
     }
 
     private static InclusionFilter composeInclusionFilter(AnalysisConfiguration config) {
-        final Set<Pattern> inclClasses = config.getClassInclusionFilters();
-        final Set<Pattern> exclClasses = config.getClassExclusionFilters();
-        final Set<Pattern> inclPkgs = config.getPackageInclusionFilters();
-        final Set<Pattern> exclPkgs = config.getPackageExclusionFilters();
+        final Predicate<String> inclClasses = matcherOf(config.getClassInclusionFilters());
+        final Predicate<String> exclClasses = matcherOf(config.getClassExclusionFilters());
+        final Predicate<String> inclPkgs = matcherOf(config.getPackageInclusionFilters());
+        final Predicate<String> exclPkgs = matcherOf(config.getPackageExclusionFilters());
+
+        final boolean noClassInclusions = config.getClassInclusionFilters().isEmpty();
+        final boolean noPackageInclusions = config.getPackageInclusionFilters().isEmpty();
+        final boolean noPackageFilters = noPackageInclusions && config.getPackageExclusionFilters().isEmpty();
+
+        //all the classes in a package share the package-level decision, so let's make it only once per package
+        final Map<String, Integer> packageDecisions = new ConcurrentHashMap<>();
 
         return new InclusionFilter() {
+            //the classes come grouped by their packages, so the last decision can usually be reused without looking up
+            //the package (and allocating its name)
+            private volatile PackageDecision lastPackageDecision;
+
             @Override
             public boolean accepts(String typeBinaryName, String typeCanonicalName) {
-                for (Pattern p : inclClasses) {
-                    if (p.matcher(typeCanonicalName).matches()) {
-                        return true;
-                    }
-                }
+                return inclClasses.test(typeCanonicalName)
+                        || (getPackageDecision(typeBinaryName) & PACKAGE_INCLUDED) != 0;
+            }
 
-                int lastDot = typeBinaryName.lastIndexOf('.');
-                String pkg = lastDot == -1 ? "" : typeBinaryName.substring(0, lastDot);
+            @Override
+            public boolean rejects(String typeBinaryName, String typeCanonicalName) {
+                return exclClasses.test(typeCanonicalName)
+                        || (getPackageDecision(typeBinaryName) & PACKAGE_EXCLUDED) != 0;
+            }
 
+            @Override
+            public boolean defaultCase() {
+                return noClassInclusions && noPackageInclusions;
+            }
 
-                for (Pattern p : inclPkgs) {
-                    if (p.matcher(pkg).matches()) {
-                        return true;
-                    }
+            private int getPackageDecision(String typeBinaryName) {
+                if (noPackageFilters) {
+                    return 0;
                 }
 
-                return false;
-            }
+                int packageLength = Math.max(typeBinaryName.lastIndexOf('.'), 0);
 
-            @Override
-            public boolean rejects(String typeBinaryName, String typeCanonicalName) {
-                for (Pattern p : exclClasses) {
-                    if (p.matcher(typeCanonicalName).matches()) {
-                        return true;
-                    }
+                PackageDecision last = lastPackageDecision;
+                if (last != null && last.pkg.length() == packageLength && typeBinaryName.startsWith(last.pkg)) {
+                    return last.decision;
                 }
 
-                int lastDot = typeBinaryName.lastIndexOf('.');
-                String pkg = lastDot == -1 ? "" : typeBinaryName.substring(0, lastDot);
+                String pkg = typeBinaryName.substring(0, packageLength);
 
-                for (Pattern p : exclPkgs) {
-                    if (p.matcher(pkg).matches()) {
-                        return true;
-                    }
-                }
+                int decision = packageDecisions.computeIfAbsent(pkg, p ->
+                        (inclPkgs.test(p) ? PACKAGE_INCLUDED : 0) | (exclPkgs.test(p) ? PACKAGE_EXCLUDED : 0));
 
-                return false;
-            }
+                lastPackageDecision = new PackageDecision(pkg, decision);
 
-            @Override
-            public boolean defaultCase() {
-                return inclClasses.isEmpty() && inclPkgs.isEmpty();
+                return decision;
             }
         };
     }
 
+    /**
+     * Combines the patterns into a single regular expression so that a name is matched in a single pass instead of
+     * once per pattern. The patterns with capturing groups are matched one by one, because their back references
+     * would point to different groups in the combined expression.
+     */
+    private static Predicate<String> matcherOf(Set<Pattern> patterns) {
+        if (patterns.isEmpty()) {
+            return name -> false;
+        }
+
+        Pattern combined;
+        if (patterns.size() == 1) {
+            combined = patterns.iterator().next();
+        } else if (patterns.stream().allMatch(JavaApiAnalyzer::isCombinable)) {
+            combined = Pattern.compile(patterns.stream().map(p -> "(?:" + p.pattern() + ")").collect(Collectors.joining("|")));
+        } else {
+            return name -> matchesAny(patterns, name);
+        }
+
+        return name -> combined.matcher(name).matches();
+    }
+
+    private static boolean isCombinable(Pattern pattern) {
+        String regex = pattern.pattern();
+        //an unterminated quote would swallow the rest of the combined expression
+        return pattern.matcher("").groupCount() == 0 && regex.lastIndexOf("\\Q") <= regex.lastIndexOf("\\E");
+    }
+
+    private static boolean matchesAny(Set<Pattern> patterns, String value) {
+        for (Pattern p : patterns) {
+            if (p.matcher(value).matches()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     private static String consume(Reader rdr) throws IOException {
         Throwable suppressed = null;
         try {
@@ -572,4 +648,51 @@ public final class JavaApiAnalyzer implements ApiAnalyzer {
             }
         }
     }
+
+    private static final class PackageDecision {
+        final String pkg;
+        final int decision;
+
+        PackageDecision(String pkg, int decision) {
+            this.pkg = pkg;
+            this.decision = decision;
+        }
+    }
+
+    /**
+     * The signature of a method with the type names replaced by integer tokens, so that the signatures can be compared
+     * cheaply.
+     */
+    private static final class MethodSignature {
+        final int[] fullParams;
+        final int[] erasedParams;
+        final int fullReturnType;
+        final int erasedReturnType;
+
+        MethodSignature(MethodElement method, Map<String, Integer> tokens) {
+            TypeEnvironment env = method.getTypeEnvironment();
+            Types types = env.getTypeUtils();
+
+            List<? extends TypeMirror> params = method.getModelRepresentation().getParameterTypes();
+            List<? extends VariableElement> declaredParams = method.getDeclaringElement().getParameters();
+
+            fullParams = new int[params.size()];
+            for (int i = 0; i < fullParams.length; ++i) {
+                fullParams[i] = token(env.toUniqueString(params.get(i)), tokens);
+            }
+
+            erasedParams = new int[declaredParams.size()];
+            for (int i = 0; i < erasedParams.length; ++i) {
+                erasedParams[i] = token(env.toUniqueString(types.erasure(declaredParams.get(i).asType())), tokens);
+            }
+
+            TypeMirror returnType = method.getModelRepresentation().getReturnType();
+            fullReturnType = token(env.toUniqueString(returnType), tokens);
+            erasedReturnType = token(env.toUniqueString(types.erasure(returnType)), tokens);
+        }
+
+        private static int token(String signature, Map<String, Integer> tokens) {
+            return tokens.computeIfAbsent(signature, __ -> tokens.size());
+        }
+    }
 }
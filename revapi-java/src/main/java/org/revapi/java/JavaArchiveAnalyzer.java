@@ -28,6 +28,7 @@ import org.revapi.java.compilation.CompilationValve;
 import org.revapi.java.compilation.Compiler;
 import org.revapi.java.compilation.InclusionFilter;
 import org.revapi.java.compilation.ProbingEnvironment;
+import org.revapi.java.compilation.StringPool;
 import org.revapi.java.model.JavaElementForest;
 
 /**
@@ -47,11 +48,19 @@ public final class JavaArchiveAnalyzer implements ArchiveAnalyzer {
                                AnalysisConfiguration.MissingClassReporting missingClassReporting,
                                boolean ignoreMissingAnnotations,
                                InclusionFilter inclusionFilter) {
+        this(api, compilationExecutor, missingClassReporting, ignoreMissingAnnotations, inclusionFilter,
+                new StringPool());
+    }
+
+    public JavaArchiveAnalyzer(API api, ExecutorService compilationExecutor,
+                               AnalysisConfiguration.MissingClassReporting missingClassReporting,
+                               boolean ignoreMissingAnnotations,
+                               InclusionFilter inclusionFilter, StringPool strings) {
         this.api = api;
         this.executor = compilationExecutor;
         this.missingClassReporting = missingClassReporting;
         this.ignoreMissingAnnotations = ignoreMissingAnnotations;
-        this.probingEnvironment = new ProbingEnvironment(api);
+        this.probingEnvironment = new ProbingEnvironment(api, strings);
         this.inclusionFilter = inclusionFilter;
     }
 
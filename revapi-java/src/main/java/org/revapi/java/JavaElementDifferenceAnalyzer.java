@@ -24,39 +24,39 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
-import java.util.Objects;
 import java.util.ResourceBundle;
-import java.util.Set;
 
-import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
 import javax.tools.ToolProvider;
 
 import org.revapi.AnalysisContext;
 import org.revapi.Difference;
 import org.revapi.DifferenceAnalyzer;
+import org.revapi.DifferenceTransform;
 import org.revapi.Element;
 import org.revapi.Report;
 import org.revapi.Stats;
+import org.revapi.java.ApiUsePaths.TypeAndUseSite;
 import org.revapi.java.compilation.CompilationValve;
 import org.revapi.java.compilation.ProbingEnvironment;
 import org.revapi.java.model.AnnotationElement;
 import org.revapi.java.model.FieldElement;
+import org.revapi.java.model.JavaElementBase;
 import org.revapi.java.model.MethodElement;
 import org.revapi.java.model.MethodParameterElement;
+import org.revapi.java.model.MissingClassElement;
 import org.revapi.java.model.TypeElement;
 import org.revapi.java.spi.Check;
-import org.revapi.java.spi.JavaElement;
 import org.revapi.java.spi.JavaModelElement;
 import org.revapi.java.spi.JavaTypeElement;
-import org.revapi.java.spi.UseSite;
 import org.revapi.java.spi.Util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -108,7 +108,14 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
     private final ProbingEnvironment oldEnvironment;
     private final ProbingEnvironment newEnvironment;
     private final Map<Check.Type, List<Check>> checksByInterest;
+    private final Map<Check.Type, List<Check>> identicalElementChecksByInterest;
+    private final Map<Check, EnumSet<Check.Attribute>> inspectedAttributes = new IdentityHashMap<>();
     private final Deque<CheckType> checkTypeStack = new ArrayDeque<>();
+    private final Deque<List<Check>> visitedChecksStack = new ArrayDeque<>();
+    private final Map<ProbingEnvironment, ApiUsePaths> usePaths = new IdentityHashMap<>(2);
+    private final Map<JavaTypeElement, String> useChains = new IdentityHashMap<>();
+    private final UnchangedClassFiles unchangedClassFiles;
+    private final CheckProfiler profiler;
 
     // NOTE: this doesn't have to be a stack of lists only because of the fact that annotations
     // are always sorted as last amongst sibling model elements.
@@ -126,7 +133,6 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
 
         this.checks = checks;
         for (Check c : checks) {
-            c.initialize(analysisContext);
             c.setOldTypeEnvironment(oldEnvironment);
             c.setNewTypeEnvironment(newEnvironment);
         }
@@ -137,16 +143,28 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
 
         this.oldEnvironment = oldEnvironment;
         this.newEnvironment = newEnvironment;
+        this.unchangedClassFiles = new UnchangedClassFiles(oldEnvironment, newEnvironment);
+        this.profiler = new CheckProfiler(analysisConfiguration.getProfileFile());
 
         this.checksByInterest = new EnumMap<>(Check.Type.class);
+        this.identicalElementChecksByInterest = new EnumMap<>(Check.Type.class);
         for (Check.Type c : Check.Type.values()) {
             checksByInterest.put(c, new ArrayList<>());
+            identicalElementChecksByInterest.put(c, new ArrayList<>());
         }
 
         for (Check c : checks) {
+            EnumSet<Check.Attribute> attributes = c.getInspectedAttributes();
+            if (attributes != null) {
+                inspectedAttributes.put(c, attributes);
+            }
+
+            boolean interestedInIdentical = c.isInterestedInIdenticalElements();
             for (Check.Type t : c.getInterest()) {
-                List<Check> cs = checksByInterest.get(t);
-                cs.add(c);
+                checksByInterest.get(t).add(c);
+                if (interestedInIdentical) {
+                    identicalElementChecksByInterest.get(t).add(c);
+                }
             }
         }
     }
@@ -165,6 +183,8 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
 
         forceClearCompilerCache();
 
+        profiler.close();
+
         Timing.LOG.debug("Difference analyzer closed.");
     }
 
@@ -173,12 +193,16 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
         Timing.LOG.trace("Beginning analysis of {} and {}.", oldElement, newElement);
 
         if (conforms(oldElement, newElement, TypeElement.class)) {
+            List<Check> checks = checksFor(Check.Type.CLASS, oldElement, newElement);
             checkTypeStack.push(CheckType.CLASS);
+            visitedChecksStack.push(checks);
             lastAnnotationResults = null;
-            for (Check c : checksByInterest.get(Check.Type.CLASS)) {
+            for (Check c : checks) {
                 Stats.of(c.getClass().getName()).start();
+                profiler.start();
                 c.visitClass(oldElement == null ? null : (TypeElement) oldElement,
                     newElement == null ? null : (TypeElement) newElement);
+                profiler.endVisit(c, null);
                 Stats.of(c.getClass().getName()).end(oldElement, newElement);
             }
         } else if (conforms(oldElement, newElement, AnnotationElement.class)) {
@@ -189,11 +213,13 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
             }
             //DO NOT push the ANNOTATION type to the checkTypeStack. Annotations are handled differently and this would
             //lead to the stack corruption and missed problems!!!
-            for (Check c : checksByInterest.get(Check.Type.ANNOTATION)) {
+            for (Check c : checksFor(Check.Type.ANNOTATION, oldElement, newElement)) {
                 Stats.of(c.getClass().getName()).start();
+                profiler.start();
                 List<Difference> cps = c
                     .visitAnnotation(oldElement == null ? null : (AnnotationElement) oldElement,
                         newElement == null ? null : (AnnotationElement) newElement);
+                profiler.endVisit(c, cps);
                 if (cps != null) {
                     lastAnnotationResults.addAll(cps);
                 }
@@ -209,14 +235,99 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
         }
     }
 
+    @Override
+    public boolean isDescendRequired(Element oldElement, Element newElement) {
+        if (!isStructurallyIdentical(oldElement, newElement)) {
+            return true;
+        }
+
+        //the children of identical elements are identical, too, so only the checks interested in identical elements
+        //would be called for them
+        if (oldElement instanceof TypeElement) {
+            return hasIdenticalElementChecks(Check.Type.values());
+        } else if (oldElement instanceof MethodElement) {
+            return hasIdenticalElementChecks(Check.Type.METHOD_PARAMETER, Check.Type.ANNOTATION);
+        } else {
+            return hasIdenticalElementChecks(Check.Type.ANNOTATION);
+        }
+    }
+
+    private boolean hasIdenticalElementChecks(Check.Type... types) {
+        for (Check.Type t : types) {
+            if (!identicalElementChecksByInterest.get(t).isEmpty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private List<Check> checksFor(Check.Type type, @Nullable Element oldElement, @Nullable Element newElement) {
+        List<Check> candidates = isStructurallyIdentical(oldElement, newElement)
+                ? identicalElementChecksByInterest.get(type)
+                : checksByInterest.get(type);
+
+        if (inspectedAttributes.isEmpty() || candidates.isEmpty()
+                || !(oldElement instanceof JavaModelElement) || !(newElement instanceof JavaModelElement)) {
+            return candidates;
+        }
+
+        //only call the checks that inspect some of the attributes that actually changed
+        AttributeChanges changes = new AttributeChanges((JavaModelElement) oldElement, (JavaModelElement) newElement);
+        List<Check> ret = new ArrayList<>(candidates.size());
+        for (Check c : candidates) {
+            EnumSet<Check.Attribute> attributes = inspectedAttributes.get(c);
+            if (attributes == null || changes.anyChanged(attributes)) {
+                ret.add(c);
+            }
+        }
+
+        return ret;
+    }
+
+    private boolean isStructurallyIdentical(@Nullable Element oldElement, @Nullable Element newElement) {
+        if (oldElement == null || newElement == null || oldElement.getClass() != newElement.getClass()
+                || oldElement instanceof MissingClassElement) {
+            return false;
+        }
+
+        //the elements of the types with identical class files are identical, too, and we can tell that without
+        //looking at their models
+        TypeElement oldType = findTypeOf(oldElement);
+        TypeElement newType = findTypeOf(newElement);
+        if (oldType != null && newType != null && unchangedClassFiles.areIdentical(oldType, newType)) {
+            return true;
+        }
+
+        if (oldElement instanceof JavaElementBase) {
+            return ((JavaElementBase<?, ?>) oldElement).isStructurallyIdentical((JavaElementBase<?, ?>) newElement);
+        } else if (oldElement instanceof AnnotationElement) {
+            return ((AnnotationElement) oldElement).isStructurallyIdentical((AnnotationElement) newElement);
+        } else {
+            return false;
+        }
+    }
+
+    @Nullable
+    private static TypeElement findTypeOf(Element element) {
+        while (element != null && !(element instanceof TypeElement)) {
+            element = element.getParent();
+        }
+
+        return (TypeElement) element;
+    }
+
     private <T extends JavaModelElement> void doRestrictedCheck(T oldElement, T newElement, CheckType interest) {
         lastAnnotationResults = null;
 
         if (!(isCheckedElsewhere(oldElement, oldEnvironment)
                 && isCheckedElsewhere(newElement, newEnvironment))) {
+            List<Check> checks = checksFor(interest.getCheckType(), oldElement, newElement);
             checkTypeStack.push(interest);
-            for (Check c : checksByInterest.get(interest.getCheckType())) {
+            visitedChecksStack.push(checks);
+            for (Check c : checks) {
                 Stats.of(c.getClass().getName()).start();
+                profiler.start();
                 switch (interest) {
                     case FIELD:
                         c.visitField((FieldElement) oldElement, (FieldElement) newElement);
@@ -228,11 +339,13 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
                         c.visitMethodParameter((MethodParameterElement) oldElement, (MethodParameterElement) newElement);
                         break;
                 }
+                profiler.endVisit(c, null);
                 Stats.of(c.getClass().getName()).end(oldElement, newElement);
             }
         } else {
             //"ignore what's on the stack because no checks actually happened".
             checkTypeStack.push(CheckType.NONE);
+            visitedChecksStack.push(Collections.emptyList());
         }
     }
 
@@ -245,9 +358,13 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
 
         List<Difference> differences = new ArrayList<>();
         CheckType lastInterest = checkTypeStack.pop();
+        List<Check> visitedChecks = visitedChecksStack.pop();
         if (lastInterest.isConcrete()) {
-            for (Check c : checksByInterest.get(lastInterest.getCheckType())) {
+            //only the checks that were visited for this pair of elements can be ended
+            for (Check c : visitedChecks) {
+                profiler.start();
                 List<Difference> p = c.visitEnd();
+                profiler.endVisitEnd(c, p);
                 if (p != null) {
                     differences.addAll(p);
                 }
@@ -299,6 +416,11 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
         return new Report(differences, oldElement, newElement);
     }
 
+    @Override
+    public void transformApplied(DifferenceTransform<?> transform, Difference difference, long durationNanos) {
+        profiler.transformApplied(transform, durationNanos);
+    }
+
     private <T> boolean conforms(Object a, Object b, Class<T> cls) {
         boolean ca = a == null || cls.isAssignableFrom(a.getClass());
         boolean cb = b == null || cls.isAssignableFrom(b.getClass());
@@ -372,50 +494,22 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
             return;
         }
 
-        usedType.visitUseSites(new UseSite.Visitor<Object, Void>() {
-            @Nullable
-            @Override
-            public Object visit(@Nonnull DeclaredType type, @Nonnull UseSite use,
-                                @Nullable Void parameter) {
-                if (appendUse(env, usedType, bld, type, use)) {
-                    return Boolean.TRUE; //just a non-null values
-                }
-
-                return null;
-            }
-
-            @Nullable
-            @Override
-            public Object end(DeclaredType type, @Nullable Void parameter) {
-                return null;
-            }
-        }, null);
+        bld.append(useChains.computeIfAbsent(usedType, t -> formatUseChain(env, t)));
     }
 
+    private String formatUseChain(ProbingEnvironment env, JavaTypeElement usedType) {
+        List<TypeAndUseSite> chain = usePaths.computeIfAbsent(env, ApiUsePaths::new).getPathToApi(usedType);
 
-    private boolean appendUse(ProbingEnvironment env, JavaTypeElement usedType, StringBuilder bld, DeclaredType type,
-                              UseSite use) {
-
-        if (!use.getUseType().isMovingToApi()) {
-            return false;
+        if (chain == null) {
+            LOG.debug("Could not find example path to API element for type {}", usedType);
+            return "";
         }
 
-        List<TypeAndUseSite> chain = getExamplePathToApiArchive(env, usedType, type, use);
-        Iterator<TypeAndUseSite> chainIt = chain.iterator();
+        StringBuilder bld = new StringBuilder();
 
-        if (chain.isEmpty()) {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Could not find example path to API element for type {} starting with use {}",
-                        ((javax.lang.model.element.TypeElement) type.asElement()).getQualifiedName().toString(), use);
-            }
-            return false;
-        }
-
-        TypeAndUseSite last = null;
-        if (chainIt.hasNext()) {
-            last = chainIt.next();
-            append(bld, last);
-        }
+        Iterator<TypeAndUseSite> chainIt = chain.iterator();
+        TypeAndUseSite last = chainIt.next();
+        append(bld, last);
 
         while (chainIt.hasNext()) {
             bld.append(" <- ");
@@ -428,103 +522,7 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
 
         bld.append(" (").append(message).append(")");
 
-        return true;
-    }
-
-    private List<TypeAndUseSite> getExamplePathToApiArchive(ProbingEnvironment env, JavaTypeElement usedType,
-                                                            DeclaredType type, UseSite bottomUse) {
-
-        ArrayList<TypeAndUseSite> ret = new ArrayList<>();
-
-        traverseToApi(env, usedType, type, bottomUse, ret, new HashSet<>());
-
-        return ret;
-    }
-
-    private boolean traverseToApi(ProbingEnvironment env, final JavaTypeElement usedType, final DeclaredType type,
-                                  final UseSite currentUse, final List<TypeAndUseSite> path, final
-                                  Set<javax.lang.model.element.TypeElement> visitedTypes) {
-
-        if (!currentUse.getUseType().isMovingToApi()) {
-            return false;
-        }
-
-        JavaTypeElement ut = findClassOf(currentUse.getSite());
-
-        return appendUseType(env, ut, path, usedType, type, currentUse, visitedTypes);
-    }
-
-    private boolean appendUseType(ProbingEnvironment env, JavaTypeElement ut, List<TypeAndUseSite> path,
-                               JavaTypeElement usedType, DeclaredType type, UseSite currentUse,
-                               Set<javax.lang.model.element.TypeElement> visitedTypes) {
-
-        javax.lang.model.element.TypeElement useType = ut.getDeclaringElement();
-
-        if (visitedTypes.contains(useType)) {
-            return false;
-        }
-
-        visitedTypes.add(useType);
-
-        if (ut.isInAPI() && !ut.isInApiThroughUse() && !ut.equals(usedType)) {
-            //the class is in the primary API
-            path.add(0, new TypeAndUseSite(type, currentUse));
-            return true;
-        } else {
-            Boolean ret = ut.visitUseSites(new UseSite.Visitor<Boolean, Void>() {
-                @Nullable
-                @Override
-                public Boolean visit(@Nonnull DeclaredType visitedType, @Nonnull UseSite use,
-                                     @Nullable Void parameter) {
-                    if (traverseToApi(env, usedType, visitedType, use, path, visitedTypes)) {
-                        path.add(0, new TypeAndUseSite(type, currentUse));
-                        return true;
-                    }
-                    return null;
-                }
-
-                @Nullable
-                @Override
-                public Boolean end(DeclaredType type, @Nullable Void parameter) {
-                    return null;
-                }
-            }, null);
-
-            if (ret == null) {
-                Set<javax.lang.model.element.TypeElement> derivedUseTypes = env.getDerivedTypes(useType);
-
-                for (javax.lang.model.element.TypeElement dut : derivedUseTypes) {
-                    TypeElement model = env.getTypeMap().get(dut);
-                    if (model == null) {
-                        continue;
-                    }
-
-                    JavaModelElement derivedUseElement = findSameDeclarationUnder(currentUse.getSite(), model);
-                    if (derivedUseElement == null) {
-                        continue;
-                    }
-
-                    UseSite derivedUse = new UseSite(currentUse.getUseType(), derivedUseElement);
-
-                    if (appendUseType(env, model, path, usedType, type, derivedUse, visitedTypes)) {
-
-                        ret = true;
-                        break;
-                    }
-                }
-
-            }
-
-            return ret == null ? false : ret;
-        }
-    }
-
-    private JavaTypeElement findClassOf(JavaElement element) {
-        while (element != null && !(element instanceof JavaTypeElement)) {
-            element = (JavaElement) element.getParent();
-        }
-
-        return (JavaTypeElement) element;
+        return bld.toString();
     }
 
     private javax.lang.model.element.TypeElement findTypeOf(javax.lang.model.element.Element element) {
@@ -535,22 +533,6 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
         return (javax.lang.model.element.TypeElement) element;
     }
 
-    private JavaModelElement findSameDeclarationUnder(JavaElement declaredElement, JavaTypeElement owningElement) {
-        if (!(declaredElement instanceof JavaModelElement)) {
-            return null;
-        }
-
-        JavaModelElement dme = (JavaModelElement) declaredElement;
-        for (Element e : owningElement.getChildren()) {
-            if (e instanceof JavaModelElement
-                    && ((JavaModelElement) e).getDeclaringElement().equals(dme.getDeclaringElement())) {
-                return (JavaModelElement) e;
-            }
-        }
-
-        return null;
-    }
-
     private boolean isCheckedElsewhere(JavaModelElement element, ProbingEnvironment env) {
         if (element == null) {
             //the other element will not be null and therefore we will determine the fact with the other element...
@@ -561,10 +543,11 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
             return false;
         }
 
-        String elementSig = Util.toUniqueString(element.getModelRepresentation());
-        String declSig = Util.toUniqueString(element.getDeclaringElement().asType());
+        TypeMirror elementType = element.getModelRepresentation();
+        TypeMirror declType = element.getDeclaringElement().asType();
 
-        if (!Objects.equals(elementSig, declSig)) {
+        //the unique strings are memoized and interned, so this is mostly just a reference comparison
+        if (!env.toUniqueString(elementType).equals(env.toUniqueString(declType))) {
             return false;
         }
 
@@ -588,16 +571,6 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
         }
     }
 
-    private static class TypeAndUseSite {
-        final DeclaredType type;
-        final UseSite useSite;
-
-        public TypeAndUseSite(DeclaredType type, UseSite useSite) {
-            this.type = type;
-            this.useSite = useSite;
-        }
-    }
-
     private enum CheckType {
         CLASS(Check.Type.CLASS), FIELD(Check.Type.FIELD), METHOD(Check.Type.METHOD),
         METHOD_PARAMETER(Check.Type.METHOD_PARAMETER), ANNOTATION(Check.Type.ANNOTATION), NONE(null);
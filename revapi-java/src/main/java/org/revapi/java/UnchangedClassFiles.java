@@ -0,0 +1,192 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.java;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.revapi.Element;
+import org.revapi.java.compilation.ClassFileDigest;
+import org.revapi.java.compilation.ProbingEnvironment;
+import org.revapi.java.model.MissingClassElement;
+import org.revapi.java.model.TypeElement;
+
+/**
+ * Decides whether the types are identical in the old and new API by comparing the digests of their class files,
+ * without having to look at their models.
+ *
+ * <p>A type is considered identical if its class file has the same API-relevant content in both APIs, if all its super
+ * types are identical (because the type inherits their members) and if all the types it refers to in its API are
+ * unchanged, too. The types that don't come from the primary archives don't have a class file digest and are compared
+ * by their models instead. The types that are not part of either of the trees, like the JDK classes, are not analyzed
+ * at all and are therefore considered unchanged.
+ *
+ * @author Lukas Krejci
+ * @since 0.14.5
+ */
+final class UnchangedClassFiles {
+    private final ProbingEnvironment oldEnvironment;
+    private final ProbingEnvironment newEnvironment;
+    private final Map<String, Boolean> identicalTypes = new HashMap<>();
+    private final Map<String, Boolean> unchangedReferences = new HashMap<>();
+    private final Map<TypeElement, Map<TypeElement, Boolean>> identicalPairs = new IdentityHashMap<>();
+
+    UnchangedClassFiles(ProbingEnvironment oldEnvironment, ProbingEnvironment newEnvironment) {
+        this.oldEnvironment = oldEnvironment;
+        this.newEnvironment = newEnvironment;
+    }
+
+    /**
+     * Checks whether the two types are identical based on their class files. The types are also required to have
+     * the same API status and identical nested types.
+     *
+     * @return true if the types are known to be identical, false if they differ or their class files are not known
+     */
+    boolean areIdentical(TypeElement oldType, TypeElement newType) {
+        Map<TypeElement, Boolean> results = identicalPairs.get(oldType);
+        Boolean ret = results == null ? null : results.get(newType);
+        if (ret == null) {
+            ret = computeAreIdentical(oldType, newType);
+            if (results == null) {
+                results = new IdentityHashMap<>(2);
+                identicalPairs.put(oldType, results);
+            }
+            results.put(newType, ret);
+        }
+
+        return ret;
+    }
+
+    private boolean computeAreIdentical(TypeElement oldType, TypeElement newType) {
+        if (oldType instanceof MissingClassElement || newType instanceof MissingClassElement
+                || !oldType.getBinaryName().equals(newType.getBinaryName())
+                || oldType.isInAPI() != newType.isInAPI() || oldType.isInApiThroughUse() != newType.isInApiThroughUse()
+                || oldEnvironment.getClassFileDigest(oldType.getBinaryName()) == null
+                || !isIdentical(oldType.getBinaryName())) {
+            return false;
+        }
+
+        Map<String, TypeElement> newNestedTypes = new HashMap<>();
+        for (Element e : newType.getChildren()) {
+            if (e instanceof TypeElement) {
+                newNestedTypes.put(((TypeElement) e).getBinaryName(), (TypeElement) e);
+            }
+        }
+
+        for (Element e : oldType.getChildren()) {
+            if (e instanceof TypeElement) {
+                TypeElement oldNested = (TypeElement) e;
+                TypeElement newNested = newNestedTypes.remove(oldNested.getBinaryName());
+                if (newNested == null || !areIdentical(oldNested, newNested)) {
+                    return false;
+                }
+            }
+        }
+
+        return newNestedTypes.isEmpty();
+    }
+
+    private boolean isIdentical(String binaryName) {
+        Boolean ret = identicalTypes.get(binaryName);
+        if (ret == null) {
+            ret = computeIdentical(binaryName);
+            identicalTypes.put(binaryName, ret);
+        }
+
+        return ret;
+    }
+
+    private boolean computeIdentical(String binaryName) {
+        ClassFileDigest oldDigest = oldEnvironment.getClassFileDigest(binaryName);
+        ClassFileDigest newDigest = newEnvironment.getClassFileDigest(binaryName);
+
+        if (oldDigest == null || newDigest == null) {
+            if (oldDigest != newDigest) {
+                return false;
+            }
+
+            //not from the primary archives, so let's compare the models
+            TypeElement oldModel = oldEnvironment.getModelType(binaryName);
+            TypeElement newModel = newEnvironment.getModelType(binaryName);
+            if (oldModel == null || newModel == null) {
+                //the types left out of both trees, like the JDK classes, are not analyzed and therefore can't differ
+                return oldModel == newModel;
+            }
+
+            if (oldModel.getClass() != newModel.getClass()) {
+                return false;
+            }
+
+            return oldModel instanceof MissingClassElement
+                    || oldModel.isStructurallyIdentical(newModel);
+        }
+
+        if (!oldDigest.hasSameContent(newDigest)) {
+            return false;
+        }
+
+        //the digest covers the names of the super types and the referenced types, so the lists are the same on both
+        //sides
+        for (String superType : oldDigest.getSuperTypes()) {
+            if (!isIdentical(superType)) {
+                return false;
+            }
+        }
+
+        for (String referencedType : oldDigest.getReferencedTypes()) {
+            if (!isReferenceUnchanged(referencedType)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * The referenced types only take part in the analysis through their names, so it is enough if they have the same
+     * class file or if they are present or missing in both APIs.
+     */
+    private boolean isReferenceUnchanged(String binaryName) {
+        Boolean ret = unchangedReferences.get(binaryName);
+        if (ret == null) {
+            ret = computeReferenceUnchanged(binaryName);
+            unchangedReferences.put(binaryName, ret);
+        }
+
+        return ret;
+    }
+
+    private boolean computeReferenceUnchanged(String binaryName) {
+        ClassFileDigest oldDigest = oldEnvironment.getClassFileDigest(binaryName);
+        ClassFileDigest newDigest = newEnvironment.getClassFileDigest(binaryName);
+
+        if (oldDigest != null && newDigest != null) {
+            return oldDigest.hasSameContent(newDigest);
+        } else if (oldDigest != null || newDigest != null) {
+            return false;
+        }
+
+        TypeElement oldModel = oldEnvironment.getModelType(binaryName);
+        TypeElement newModel = newEnvironment.getModelType(binaryName);
+        if (oldModel == null || newModel == null) {
+            return oldModel == newModel;
+        }
+
+        return oldModel.getClass() == newModel.getClass();
+    }
+}
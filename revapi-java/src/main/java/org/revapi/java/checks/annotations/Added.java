@@ -24,13 +24,16 @@ import org.revapi.Difference;
 import org.revapi.java.spi.CheckBase;
 import org.revapi.java.spi.Code;
 import org.revapi.java.spi.JavaAnnotationElement;
-import org.revapi.java.spi.Util;
 
 /**
  * @author Lukas Krejci
  * @since 0.1
  */
 public final class Added extends CheckBase {
+    public Added() {
+        super(true);
+    }
+
     @Override
     protected List<Difference> doVisitAnnotation(JavaAnnotationElement oldAnnotation,
         JavaAnnotationElement newAnnotation) {
@@ -38,8 +41,9 @@ public final class Added extends CheckBase {
         if (oldAnnotation == null && newAnnotation != null && isAccessible(newAnnotation.getParent())) {
             return Collections.singletonList(
                 createDifference(Code.ANNOTATION_ADDED, Code.attachmentsFor(null, newAnnotation.getParent(),
-                        "annotationType", Util.toHumanReadableString(newAnnotation.getAnnotation().getAnnotationType()),
-                        "annotation", Util.toHumanReadableString(newAnnotation.getAnnotation())))
+                        "annotationType",
+                        getNewTypeEnvironment().toHumanReadableString(newAnnotation.getAnnotation().getAnnotationType()),
+                        "annotation", newAnnotation.getFullHumanReadableString()))
             );
         }
 
@@ -50,4 +54,9 @@ public final class Added extends CheckBase {
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.ANNOTATION);
     }
+
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
 }
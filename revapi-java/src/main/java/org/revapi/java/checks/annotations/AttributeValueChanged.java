@@ -36,6 +36,10 @@ import org.revapi.java.spi.Util;
  * @since 0.1
  */
 public final class AttributeValueChanged extends CheckBase {
+    public AttributeValueChanged() {
+        super(true);
+    }
+
     @Override
     protected List<Difference> doVisitAnnotation(JavaAnnotationElement oldElement,
         JavaAnnotationElement newElement) {
@@ -46,6 +50,7 @@ public final class AttributeValueChanged extends CheckBase {
 
         AnnotationMirror oldAnnotation = oldElement.getAnnotation();
         AnnotationMirror newAnnotation = newElement.getAnnotation();
+        String annotationType = getNewTypeEnvironment().toHumanReadableString(newAnnotation.getAnnotationType());
 
         List<Difference> result = new ArrayList<>();
 
@@ -65,16 +70,17 @@ public final class AttributeValueChanged extends CheckBase {
                 result.add(
                     createDifference(Code.ANNOTATION_ATTRIBUTE_REMOVED, Code.attachmentsFor(oldElement.getParent(),
                             newElement.getParent(),
-                            "annotationType", Util.toHumanReadableString(newElement.getAnnotation().getAnnotationType()),
-                            "annotation", Util.toHumanReadableString(newElement.getAnnotation()),
+                            "annotationType", annotationType,
+                            "annotation", newElement.getFullHumanReadableString(),
                             "attribute", name,
                             "value", Util.toHumanReadableString(oldValue.getValue())))
                 );
-            } else if (!Util.isEqual(oldValue.getValue(), newValue.getValue())) {
+            } else if (!getOldTypeEnvironment().toCanonicalString(oldValue.getValue())
+                    .equals(getNewTypeEnvironment().toCanonicalString(newValue.getValue()))) {
                 result.add(createDifference(Code.ANNOTATION_ATTRIBUTE_VALUE_CHANGED,
                         Code.attachmentsFor(oldElement.getParent(), newElement.getParent(),
-                                "annotationType", Util.toHumanReadableString(newElement.getAnnotation().getAnnotationType()),
-                                "annotation", Util.toHumanReadableString(newElement.getAnnotation()),
+                                "annotationType", annotationType,
+                                "annotation", newElement.getFullHumanReadableString(),
                                 "attribute", name,
                                 "oldValue", Util.toHumanReadableString(oldValue.getValue()),
                                 "newValue", Util.toHumanReadableString(newValue.getValue()))
@@ -94,8 +100,8 @@ public final class AttributeValueChanged extends CheckBase {
                 result.add(
                     createDifference(Code.ANNOTATION_ATTRIBUTE_ADDED, Code.attachmentsFor(oldElement.getParent(),
                             newElement.getParent(),
-                            "annotationType", Util.toHumanReadableString(newElement.getAnnotation().getAnnotationType()),
-                            "annotation", Util.toHumanReadableString(newElement.getAnnotation()),
+                            "annotationType", annotationType,
+                            "annotation", newElement.getFullHumanReadableString(),
                             "attribute", name,
                             "value", Util.toHumanReadableString(newValue.getValue())))
                 );
@@ -109,4 +115,9 @@ public final class AttributeValueChanged extends CheckBase {
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.ANNOTATION);
     }
+
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
 }
@@ -24,13 +24,16 @@ import org.revapi.Difference;
 import org.revapi.java.spi.CheckBase;
 import org.revapi.java.spi.Code;
 import org.revapi.java.spi.JavaAnnotationElement;
-import org.revapi.java.spi.Util;
 
 /**
  * @author Lukas Krejci
  * @since 0.1
  */
 public final class Removed extends CheckBase {
+    public Removed() {
+        super(true);
+    }
+
     @Override
     protected List<Difference> doVisitAnnotation(JavaAnnotationElement oldAnnotation,
         JavaAnnotationElement newAnnotation) {
@@ -38,8 +41,9 @@ public final class Removed extends CheckBase {
         if (oldAnnotation != null && newAnnotation == null && isAccessible(oldAnnotation.getParent())) {
             return Collections.singletonList(
                 createDifference(Code.ANNOTATION_REMOVED, Code.attachmentsFor(oldAnnotation.getParent(), null,
-                        "annotationType", Util.toHumanReadableString(oldAnnotation.getAnnotation().getAnnotationType()),
-                        "annotation", Util.toHumanReadableString(oldAnnotation.getAnnotation())))
+                        "annotationType",
+                        getOldTypeEnvironment().toHumanReadableString(oldAnnotation.getAnnotation().getAnnotationType()),
+                        "annotation", oldAnnotation.getFullHumanReadableString()))
             );
         }
 
@@ -50,4 +54,9 @@ public final class Removed extends CheckBase {
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.ANNOTATION);
     }
+
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
 }
@@ -32,6 +32,10 @@ import org.revapi.java.spi.JavaTypeElement;
  * @since 0.1
  */
 public final class Added extends CheckBase {
+    public Added() {
+        super(true);
+    }
+
     @Override
     protected List<Difference> doEnd() {
         ActiveElements<JavaTypeElement> types = popIfActive();
@@ -61,4 +65,15 @@ public final class Added extends CheckBase {
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.CLASS);
     }
+
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        //only the added elements are of interest and those are always visited
+        return EnumSet.noneOf(Attribute.class);
+    }
 }
@@ -42,11 +42,25 @@ import org.revapi.java.spi.Util;
  */
 public final class InheritanceChainChanged extends CheckBase {
 
+    public InheritanceChainChanged() {
+        super(true);
+    }
+
     @Override
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.CLASS);
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        return EnumSet.of(Attribute.SUPER_TYPES);
+    }
+
     @Override
     protected List<Difference> doEnd() {
         ActiveElements<JavaTypeElement> types = popIfActive();
@@ -119,7 +133,7 @@ public final class InheritanceChainChanged extends CheckBase {
                 ret.add(createDifference(code, Code.attachmentsFor(types.oldElement, types.newElement, "superClass", str)));
 
                 //additionally add a difference about checked exceptions
-                if (changedToCheckedException(getNewTypeEnvironment().getTypeUtils(), t, oldSuperClasses)) {
+                if (changedToCheckedException(getNewTypeEnvironment(), t, oldSuperClasses)) {
                     ret.add(createDifference(Code.CLASS_NOW_CHECKED_EXCEPTION,
                             Code.attachmentsFor(types.oldElement, types.newElement)));
                 }
@@ -140,13 +154,11 @@ public final class InheritanceChainChanged extends CheckBase {
         TypeElement oldType = oldEl.getDeclaringElement();
         TypeElement newType = newEl.getDeclaringElement();
 
-        List<TypeMirror> oldSuperTypes = Util
-            .getAllSuperClasses(getOldTypeEnvironment().getTypeUtils(), oldType.asType());
-        List<TypeMirror> newSuperTypes = Util
-            .getAllSuperClasses(getNewTypeEnvironment().getTypeUtils(), newType.asType());
+        List<TypeMirror> oldSuperTypes = getOldTypeEnvironment().getAllSuperClasses(oldType.asType());
+        List<TypeMirror> newSuperTypes = getNewTypeEnvironment().getAllSuperClasses(newType.asType());
 
         if (oldSuperTypes.size() != newSuperTypes.size()) {
-            pushActive(oldEl, newEl, oldSuperTypes, newSuperTypes);
+            pushActive(oldEl, newEl, new ArrayList<>(oldSuperTypes), new ArrayList<>(newSuperTypes));
         } else {
             Types oldTypes = getOldTypeEnvironment().getTypeUtils();
             Types newTypes = getNewTypeEnvironment().getTypeUtils();
@@ -158,20 +170,20 @@ public final class InheritanceChainChanged extends CheckBase {
                 TypeMirror newSuperClass = newTypes.erasure(newSuperTypes.get(i));
 
                 if (!Util.isSameType(oldSuperClass, newSuperClass)) {
-                    pushActive(oldEl, newEl, oldSuperTypes, newSuperTypes);
+                    pushActive(oldEl, newEl, new ArrayList<>(oldSuperTypes), new ArrayList<>(newSuperTypes));
                     break;
                 }
             }
         }
     }
 
-    private boolean changedToCheckedException(@Nonnull Types newTypeEnv, @Nonnull TypeMirror newType,
+    private boolean changedToCheckedException(@Nonnull TypeEnvironment newTypeEnv, @Nonnull TypeMirror newType,
         @Nonnull List<TypeMirror> oldTypes) {
 
         if ("java.lang.Exception".equals(Util.toHumanReadableString(newType))) {
             return isTypeThrowable(oldTypes);
         } else {
-            for (TypeMirror sc : Util.getAllSuperClasses(newTypeEnv, newType)) {
+            for (TypeMirror sc : newTypeEnv.getAllSuperClasses(newType)) {
                 if ("java.lang.Exception".equals(Util.toHumanReadableString(sc))) {
                     return isTypeThrowable(oldTypes);
                 }
@@ -191,12 +203,12 @@ public final class InheritanceChainChanged extends CheckBase {
         return false;
     }
 
-    private List<String> superClassChainAsUniqueStrings(@Nonnull TypeMirror cls, @Nonnull Types env) {
-        List<TypeMirror> supers = Util.getAllSuperClasses(env, cls);
+    private List<String> superClassChainAsUniqueStrings(@Nonnull TypeMirror cls, @Nonnull TypeEnvironment env) {
+        List<TypeMirror> supers = env.getAllSuperClasses(cls);
         List<String> ret = new ArrayList<>(supers.size());
 
         for (TypeMirror s : supers) {
-            ret.add(Util.toUniqueString(env.erasure(s)));
+            ret.add(Util.toUniqueString(env.getTypeUtils().erasure(s)));
         }
 
         return ret;
@@ -214,11 +226,9 @@ public final class InheritanceChainChanged extends CheckBase {
             if (el != null) {
                 TypeMirror opposite = el.asType();
 
-                List<String> candidateSuperChain = superClassChainAsUniqueStrings(candidate,
-                    candidateEnvironment.getTypeUtils());
+                List<String> candidateSuperChain = superClassChainAsUniqueStrings(candidate, candidateEnvironment);
 
-                List<String> oppositeSuperChain = superClassChainAsUniqueStrings(opposite,
-                    oppositeEnvironment.getTypeUtils());
+                List<String> oppositeSuperChain = superClassChainAsUniqueStrings(opposite, oppositeEnvironment);
 
                 report = !candidateSuperChain.equals(oppositeSuperChain);
             }
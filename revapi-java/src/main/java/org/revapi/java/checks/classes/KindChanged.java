@@ -33,11 +33,25 @@ import org.revapi.java.spi.JavaTypeElement;
  */
 public final class KindChanged extends CheckBase {
 
+    public KindChanged() {
+        super(true);
+    }
+
     @Override
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.CLASS);
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        return EnumSet.of(Attribute.KIND);
+    }
+
     @Override
     protected void doVisitClass(JavaTypeElement oldType, JavaTypeElement newType) {
         if (oldType != null && newType != null
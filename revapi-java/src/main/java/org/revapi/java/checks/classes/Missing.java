@@ -17,6 +17,10 @@ import org.revapi.java.spi.JavaTypeElement;
  */
 public final class Missing extends CheckBase {
 
+    public Missing() {
+        super(true);
+    }
+
     @Override
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.CLASS);
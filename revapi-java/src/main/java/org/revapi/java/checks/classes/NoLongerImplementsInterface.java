@@ -34,11 +34,25 @@ import org.revapi.java.spi.Util;
  */
 public final class NoLongerImplementsInterface extends CheckBase {
 
+    public NoLongerImplementsInterface() {
+        super(true);
+    }
+
     @Override
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.CLASS);
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        return EnumSet.of(Attribute.SUPER_TYPES);
+    }
+
     @Override
     protected void doVisitClass(JavaTypeElement oldType, JavaTypeElement newType) {
         if (!isBothAccessible(oldType, newType)) {
@@ -52,7 +66,7 @@ public final class NoLongerImplementsInterface extends CheckBase {
                 oldType.getModelRepresentation());
 
         for (TypeMirror oldIface : oldInterfaces) {
-            if (!Util.isSubtype(oldIface, newInterfaces, getOldTypeEnvironment().getTypeUtils())) {
+            if (!getOldTypeEnvironment().isSubtype(oldIface, newInterfaces)) {
                 pushActive(oldType, newType, oldInterfaces, newInterfaces);
                 break;
             }
@@ -75,7 +89,7 @@ public final class NoLongerImplementsInterface extends CheckBase {
         List<TypeMirror> newInterfaces = (List<TypeMirror>) types.context[1];
 
         for (TypeMirror oldIface : oldInterfaces) {
-            if (!Util.isSubtype(oldIface, newInterfaces, getOldTypeEnvironment().getTypeUtils())) {
+            if (!getOldTypeEnvironment().isSubtype(oldIface, newInterfaces)) {
                 result.add(createDifference(Code.CLASS_NO_LONGER_IMPLEMENTS_INTERFACE,
                         Code.attachmentsFor(types.oldElement, types.newElement,
                             "interface", Util.toHumanReadableString(oldIface))));
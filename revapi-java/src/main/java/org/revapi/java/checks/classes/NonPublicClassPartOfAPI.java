@@ -32,6 +32,10 @@ import org.revapi.java.spi.Util;
  */
 public final class NonPublicClassPartOfAPI extends CheckBase {
 
+    public NonPublicClassPartOfAPI() {
+        super(true);
+    }
+
     @Override
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.CLASS);
@@ -34,11 +34,25 @@ import org.revapi.java.spi.Util;
  */
 public final class NowImplementsInterface extends CheckBase {
 
+    public NowImplementsInterface() {
+        super(true);
+    }
+
     @Override
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.CLASS);
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        return EnumSet.of(Attribute.SUPER_TYPES);
+    }
+
     @Override
     protected void doVisitClass(JavaTypeElement oldType, JavaTypeElement newType) {
         if (!isBothAccessible(oldType, newType)) {
@@ -51,7 +65,7 @@ public final class NowImplementsInterface extends CheckBase {
         List<? extends TypeMirror> oldInterfaces = oldType.getDeclaringElement().getInterfaces();
 
         for (TypeMirror newIface : newInterfaces) {
-            if (!Util.isSubtype(newIface, oldInterfaces, getNewTypeEnvironment().getTypeUtils())) {
+            if (!getNewTypeEnvironment().isSubtype(newIface, oldInterfaces)) {
                 pushActive(oldType, newType);
                 break;
             }
@@ -71,7 +85,7 @@ public final class NowImplementsInterface extends CheckBase {
         List<? extends TypeMirror> oldInterfaces = types.oldElement.getDeclaringElement().getInterfaces();
 
         for (TypeMirror newIface : newInterfaces) {
-            if (!Util.isSubtype(newIface, oldInterfaces, getNewTypeEnvironment().getTypeUtils())) {
+            if (!getNewTypeEnvironment().isSubtype(newIface, oldInterfaces)) {
                 result.add(
                     createDifference(Code.CLASS_NOW_IMPLEMENTS_INTERFACE,
                             Code.attachmentsFor(types.oldElement, types.newElement,
@@ -33,11 +33,26 @@ import org.revapi.java.spi.JavaTypeElement;
  */
 public final class Removed extends CheckBase {
 
+    public Removed() {
+        super(true);
+    }
+
     @Override
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.CLASS);
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        //only the removed elements are of interest and those are always visited
+        return EnumSet.noneOf(Attribute.class);
+    }
+
     @Override
     protected void doVisitClass(JavaTypeElement oldType, JavaTypeElement newType) {
         if (oldType != null && newType == null && isAccessible(oldType)) {
@@ -18,6 +18,7 @@ package org.revapi.java.checks.common;
 
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -39,11 +40,22 @@ public abstract class ModifierChanged extends CheckBase {
     private final Modifier modifier;
 
     protected ModifierChanged(boolean added, Code code, Modifier modifier) {
+        super(true);
         this.added = added;
         this.code = code;
         this.modifier = modifier;
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        return EnumSet.of(Attribute.MODIFIERS);
+    }
+
     protected final void doVisit(JavaModelElement oldElement, JavaModelElement newElement) {
         if (!isBothAccessible(oldElement, newElement)) {
             return;
@@ -9,7 +9,6 @@ import org.revapi.Difference;
 import org.revapi.java.spi.CheckBase;
 import org.revapi.java.spi.Code;
 import org.revapi.java.spi.JavaModelElement;
-import org.revapi.java.spi.Util;
 
 /**
  * @author Lukas Krejci
@@ -20,10 +19,16 @@ public abstract class MovedInHierarchy extends CheckBase {
     private final Code moveDown;
 
     protected MovedInHierarchy(Code moveUp, Code moveDown) {
+        super(true);
         this.moveUp = moveUp;
         this.moveDown = moveDown;
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
     protected void doVisit(@Nullable JavaModelElement oldEl, @Nullable JavaModelElement newEl) {
         if (!isBothAccessible(oldEl, newEl)) {
             return;
@@ -36,8 +41,8 @@ public abstract class MovedInHierarchy extends CheckBase {
             return;
         }
 
-        String oldType = Util.toUniqueString(oldEl.getModelRepresentation());
-        String newType = Util.toUniqueString(newEl.getModelRepresentation());
+        String oldType = getOldTypeEnvironment().toUniqueString(oldEl.getModelRepresentation());
+        String newType = getNewTypeEnvironment().toUniqueString(newEl.getModelRepresentation());
 
         if (oldType.equals(newType)) {
             pushActive(oldEl, newEl);
@@ -51,9 +56,9 @@ public abstract class MovedInHierarchy extends CheckBase {
         }
 
         String oldType =
-                Util.toHumanReadableString(els.oldElement.getDeclaringElement().getEnclosingElement().asType());
+                getOldTypeEnvironment().toHumanReadableString(els.oldElement.getDeclaringElement().getEnclosingElement().asType());
         String newType =
-                Util.toHumanReadableString(els.newElement.getDeclaringElement().getEnclosingElement().asType());
+                getNewTypeEnvironment().toHumanReadableString(els.newElement.getDeclaringElement().getEnclosingElement().asType());
 
         //we know that oldEl.isInherited() != newEl.isInherited(), so it's enough to just check for the old
         Code code = els.oldElement.isInherited() ? moveDown : moveUp;
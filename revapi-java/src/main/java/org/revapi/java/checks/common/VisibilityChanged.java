@@ -17,6 +17,7 @@
 package org.revapi.java.checks.common;
 
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 
 import javax.lang.model.element.Element;
@@ -36,10 +37,21 @@ public abstract class VisibilityChanged extends CheckBase {
     private final boolean reportIncrease;
 
     protected VisibilityChanged(Code code, boolean reportIncrease) {
+        super(true);
         this.code = code;
         this.reportIncrease = reportIncrease;
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        return EnumSet.of(Attribute.MODIFIERS);
+    }
+
     protected final void doVisit(JavaModelElement oldElement, JavaModelElement newElement) {
         if (oldElement != null && newElement != null) {
             boolean oldAccessible = isAccessible(oldElement);
@@ -33,11 +33,26 @@ import org.revapi.java.spi.JavaFieldElement;
  */
 public final class Added extends CheckBase {
 
+    public Added() {
+        super(true);
+    }
+
     @Override
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.FIELD);
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        //only the added elements are of interest and those are always visited
+        return EnumSet.noneOf(Attribute.class);
+    }
+
     @Override
     protected void doVisitField(JavaFieldElement oldField, JavaFieldElement newField) {
         if (oldField == null && newField != null && isAccessible(newField)) {
@@ -32,11 +32,25 @@ import org.revapi.java.spi.JavaFieldElement;
  */
 public final class ConstantValueChanged extends CheckBase {
 
+    public ConstantValueChanged() {
+        super(true);
+    }
+
     @Override
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.FIELD);
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        return EnumSet.of(Attribute.CONSTANT_VALUE);
+    }
+
     @Override
     protected void doVisitField(JavaFieldElement oldField, JavaFieldElement newField) {
         if (!isBothAccessible(oldField, newField)) {
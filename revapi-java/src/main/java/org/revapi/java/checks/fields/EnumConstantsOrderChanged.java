@@ -39,11 +39,20 @@ import org.revapi.java.spi.JavaTypeElement;
 public class EnumConstantsOrderChanged extends CheckBase {
     private boolean isEnumClass;
 
+    public EnumConstantsOrderChanged() {
+        super(true);
+    }
+
     @Override
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.CLASS, Type.FIELD);
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
     @Override
     protected void doVisitClass(@Nullable JavaTypeElement oldType, @Nullable JavaTypeElement newType) {
         isEnumClass = newType != null && newType.getDeclaringElement().getKind() == ElementKind.ENUM;
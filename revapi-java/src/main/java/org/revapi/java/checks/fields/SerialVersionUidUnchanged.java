@@ -16,20 +16,24 @@
 
 package org.revapi.java.checks.fields;
 
-import java.io.ByteArrayOutputStream;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
-import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
+import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -61,7 +65,6 @@ import org.revapi.java.spi.CheckBase;
 import org.revapi.java.spi.Code;
 import org.revapi.java.spi.JavaFieldElement;
 import org.revapi.java.spi.TypeEnvironment;
-import org.revapi.java.spi.Util;
 
 /**
  * @author Lukas Krejci
@@ -70,7 +73,25 @@ import org.revapi.java.spi.Util;
 public final class SerialVersionUidUnchanged extends CheckBase {
 
     private static final String SERIAL_VERSION_UID_FIELD_NAME = "serialVersionUID";
+
+    private static final OutputStream NULL_OUTPUT = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
     private boolean strict = false;
+    private final MessageDigest digest = newDigest();
+    private final Map<TypeElement, Long> oldComputedSUIDs = new IdentityHashMap<>();
+    private final Map<TypeElement, Long> newComputedSUIDs = new IdentityHashMap<>();
+
+    public SerialVersionUidUnchanged() {
+        super(true);
+    }
 
     @Override
     public EnumSet<Type> getInterest() {
@@ -137,25 +158,33 @@ public final class SerialVersionUidUnchanged extends CheckBase {
             return;
         }
 
+        Long actualOldSUID = (Long) oldField.getDeclaringElement().getConstantValue();
+        Long actualNewSUID = (Long) newField.getDeclaringElement().getConstantValue();
+
+        if (!Objects.equals(actualOldSUID, actualNewSUID)) {
+            return;
+        }
+
         TypeElement oldType = (TypeElement) oldField.getDeclaringElement().getEnclosingElement();
         TypeElement newType = (TypeElement) newField.getDeclaringElement().getEnclosingElement();
 
-        long computedOldSUID = strict
-                ? computeSerialVersionUID(oldType, getOldTypeEnvironment())
-                : computeStructuralId(oldType, getOldTypeEnvironment());
+        long computedOldSUID = oldComputedSUIDs.computeIfAbsent(oldType,
+                t -> computeId(t, getOldTypeEnvironment()));
 
-        long computedNewSUID = strict
-                ? computeSerialVersionUID(newType, getNewTypeEnvironment())
-                : computeStructuralId(newType, getNewTypeEnvironment());
+        long computedNewSUID = newComputedSUIDs.computeIfAbsent(newType,
+                t -> computeId(t, getNewTypeEnvironment()));
 
-        Long actualOldSUID = (Long) oldField.getDeclaringElement().getConstantValue();
-        Long actualNewSUID = (Long) newField.getDeclaringElement().getConstantValue();
-
-        if (Objects.equals(actualOldSUID, actualNewSUID) && computedOldSUID != computedNewSUID) {
+        if (computedOldSUID != computedNewSUID) {
             pushActive(oldField, newField, actualOldSUID);
         }
     }
 
+    private long computeId(TypeElement type, TypeEnvironment environment) {
+        return strict
+                ? computeSerialVersionUID(type, environment, digest)
+                : computeStructuralId(type, environment, digest);
+    }
+
     @Override
     protected List<Difference> doEnd() {
         ActiveElements<JavaFieldElement> fields = popIfActive();
@@ -170,6 +199,10 @@ public final class SerialVersionUidUnchanged extends CheckBase {
     }
 
     public static long computeStructuralId(TypeElement type, TypeEnvironment environment) {
+        return computeStructuralId(type, environment, newDigest());
+    }
+
+    private static long computeStructuralId(TypeElement type, TypeEnvironment environment, MessageDigest md) {
         Predicate<Element> serializableFields = e -> {
             Set<Modifier> mods = e.getModifiers();
             return !mods.contains(Modifier.TRANSIENT) && !mods.contains(Modifier.STATIC);
@@ -185,7 +218,7 @@ public final class SerialVersionUidUnchanged extends CheckBase {
 
         Types types = environment.getTypeUtils();
 
-        for (TypeMirror st: Util.getAllSuperClasses(types, type.asType())) {
+        for (TypeMirror st: environment.getAllSuperClasses(type.asType())) {
             Element ste = types.asElement(st);
             ElementFilter.fieldsIn(ste.getEnclosedElements()).stream()
                     .filter(serializableFields)
@@ -194,29 +227,24 @@ public final class SerialVersionUidUnchanged extends CheckBase {
                     .forEach(fields::add);
         }
 
-        String data = fields.stream().map(Util::toUniqueString).collect(Collectors.joining());
-
-        try {
-            byte[] bytes = data.getBytes("UTF-8");
-
-            MessageDigest md = MessageDigest.getInstance("SHA");
-            byte[] hashBytes = md.digest(bytes);
-            long hash = 0;
-            for (int i = Math.min(hashBytes.length, 8) - 1; i >= 0; i--) {
-                hash = (hash << 8) | (hashBytes[i] & 0xFF);
-            }
-            return hash;
-        } catch (UnsupportedEncodingException | NoSuchAlgorithmException e) {
-            throw new IllegalStateException("Could not compute structural ID of a type "
-                    + type.getQualifiedName().toString(), e);
+        //the UTF-8 encoding of the concatenated strings is the concatenation of their encodings, so we can feed the
+        //digest one field at a time
+        md.reset();
+        for (TypeMirror field : fields) {
+            md.update(environment.toUniqueString(field).getBytes(UTF_8));
         }
+
+        return toLong(md.digest());
     }
 
     /**
      * Adapted from {@link java.io.ObjectStreamClass#computeDefaultSUID(java.lang.Class)} method.
      */
     public static long computeSerialVersionUID(TypeElement type, TypeEnvironment environment) {
+        return computeSerialVersionUID(type, environment, newDigest());
+    }
 
+    private static long computeSerialVersionUID(TypeElement type, TypeEnvironment environment, MessageDigest md) {
         TypeElement javaIoSerializable = environment.getElementUtils().getTypeElement("java.io.Serializable");
 
         if (!environment.getTypeUtils().isAssignable(type.asType(), javaIoSerializable.asType())) {
@@ -228,8 +256,8 @@ public final class SerialVersionUidUnchanged extends CheckBase {
 //        }
 
         try {
-            ByteArrayOutputStream bout = new ByteArrayOutputStream();
-            DataOutputStream dout = new DataOutputStream(bout);
+            md.reset();
+            DataOutputStream dout = new DataOutputStream(new DigestOutputStream(NULL_OUTPUT, md));
 
             dout.writeUTF(type.getQualifiedName().toString());
 
@@ -447,19 +475,29 @@ public final class SerialVersionUidUnchanged extends CheckBase {
 //
             dout.flush();
 
-            MessageDigest md = MessageDigest.getInstance("SHA");
-            byte[] hashBytes = md.digest(bout.toByteArray());
-            long hash = 0;
-            for (i = Math.min(hashBytes.length, 8) - 1; i >= 0; i--) {
-                hash = (hash << 8) | (hashBytes[i] & 0xFF);
-            }
-            return hash;
-        } catch (IOException | NoSuchAlgorithmException ex) {
+            return toLong(md.digest());
+        } catch (IOException ex) {
             throw new IllegalStateException(
                 "Could not compute default serialization UID for class: " + type.getQualifiedName().toString(), ex);
         }
     }
 
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA digest not available.", e);
+        }
+    }
+
+    private static long toLong(byte[] hashBytes) {
+        long hash = 0;
+        for (int i = Math.min(hashBytes.length, 8) - 1; i >= 0; i--) {
+            hash = (hash << 8) | (hashBytes[i] & 0xFF);
+        }
+        return hash;
+    }
+
     /**
      * Adapted from {@link java.io.ObjectStreamClass.MemberSignature}
      *
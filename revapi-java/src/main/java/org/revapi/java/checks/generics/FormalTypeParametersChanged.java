@@ -42,11 +42,25 @@ import org.revapi.java.spi.Util;
 public final class FormalTypeParametersChanged extends CheckBase {
 
 
+    public FormalTypeParametersChanged() {
+        super(true);
+    }
+
     @Override
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.CLASS, Type.METHOD);
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        return EnumSet.of(Attribute.TYPE_PARAMETERS);
+    }
+
     @Override
     protected void doVisitClass(@Nullable JavaTypeElement oldType, @Nullable JavaTypeElement newType) {
         doVisit(oldType, newType);
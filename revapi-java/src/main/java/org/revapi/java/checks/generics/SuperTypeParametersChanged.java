@@ -29,7 +29,6 @@ import org.revapi.Difference;
 import org.revapi.java.spi.CheckBase;
 import org.revapi.java.spi.Code;
 import org.revapi.java.spi.JavaTypeElement;
-import org.revapi.java.spi.Util;
 
 /**
  * @author Lukas Krejci
@@ -37,11 +36,25 @@ import org.revapi.java.spi.Util;
  */
 public class SuperTypeParametersChanged extends CheckBase {
 
+    public SuperTypeParametersChanged() {
+        super(true);
+    }
+
     @Override
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.CLASS);
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        return EnumSet.of(Attribute.SUPER_TYPES);
+    }
+
     @Override
     protected void doVisitClass(@Nullable JavaTypeElement oldType, @Nullable JavaTypeElement newType) {
         if (!isBothAccessible(oldType, newType)) {
@@ -66,11 +79,11 @@ public class SuperTypeParametersChanged extends CheckBase {
         Map<String, TypeMirror> erasedNew = new LinkedHashMap<>();
 
         for (TypeMirror t : oldSuperTypes) {
-            erasedOld.put(Util.toUniqueString(getOldTypeEnvironment().getTypeUtils().erasure(t)), t);
+            erasedOld.put(getOldTypeEnvironment().toUniqueString(getOldTypeEnvironment().getTypeUtils().erasure(t)), t);
         }
 
         for (TypeMirror t : newSuperTypes) {
-            erasedNew.put(Util.toUniqueString(getNewTypeEnvironment().getTypeUtils().erasure(t)), t);
+            erasedNew.put(getNewTypeEnvironment().toUniqueString(getNewTypeEnvironment().getTypeUtils().erasure(t)), t);
         }
 
         if (!erasedOld.keySet().equals(erasedNew.keySet())) {
@@ -83,8 +96,8 @@ public class SuperTypeParametersChanged extends CheckBase {
         for (Map.Entry<String, TypeMirror> e : erasedOld.entrySet()) {
             TypeMirror oldT = e.getValue();
             TypeMirror newT = erasedNew.get(e.getKey());
-            String oldS = Util.toUniqueString(oldT);
-            String newS = Util.toUniqueString(newT);
+            String oldS = getOldTypeEnvironment().toUniqueString(oldT);
+            String newS = getNewTypeEnvironment().toUniqueString(newT);
 
             if (!oldS.equals(newS)) {
                 changed.put(oldT, newT);
@@ -109,8 +122,8 @@ public class SuperTypeParametersChanged extends CheckBase {
 
         List<Difference> ret = new ArrayList<>();
         for (Map.Entry<TypeMirror, TypeMirror> e : changed.entrySet()) {
-            String oldS = Util.toHumanReadableString(e.getKey());
-            String newS = Util.toHumanReadableString(e.getValue());
+            String oldS = getOldTypeEnvironment().toHumanReadableString(e.getKey());
+            String newS = getNewTypeEnvironment().toHumanReadableString(e.getValue());
             ret.add(createDifference(Code.CLASS_SUPER_TYPE_TYPE_PARAMETERS_CHANGED,
                     Code.attachmentsFor(types.oldElement, types.newElement,
                             "oldSuperType", oldS,
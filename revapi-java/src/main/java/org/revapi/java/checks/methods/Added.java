@@ -53,11 +53,26 @@ public final class Added extends CheckBase {
         }
     };
 
+    public Added() {
+        super(true);
+    }
+
     @Override
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.METHOD);
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        //only the added elements are of interest and those are always visited
+        return EnumSet.noneOf(Attribute.class);
+    }
+
     @Override
     protected void doVisitMethod(JavaMethodElement oldMethod, JavaMethodElement newMethod) {
         if (oldMethod == null && newMethod != null && isAccessible(newMethod)) {
@@ -121,5 +136,4 @@ public final class Added extends CheckBase {
 
         return Collections.singletonList(difference);
     }
-
 }
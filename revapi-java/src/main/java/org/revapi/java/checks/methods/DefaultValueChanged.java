@@ -35,11 +35,25 @@ import org.revapi.java.spi.Util;
  */
 public final class DefaultValueChanged extends CheckBase {
 
+    public DefaultValueChanged() {
+        super(true);
+    }
+
     @Override
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.METHOD);
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        return EnumSet.of(Attribute.DEFAULT_VALUE);
+    }
+
     @Override
     protected List<Difference> doEnd() {
         ActiveElements<JavaMethodElement> methods = popIfActive();
@@ -86,12 +100,12 @@ public final class DefaultValueChanged extends CheckBase {
         AnnotationValue newVal = newMethod.getDeclaringElement().getDefaultValue();
 
         boolean equal =
-            oldVal != null && newVal != null && Util.isEqual(oldVal, newVal) || (oldVal == null && newVal == null);
+            oldVal != null && newVal != null && getOldTypeEnvironment().toCanonicalString(oldVal)
+                .equals(getNewTypeEnvironment().toCanonicalString(newVal)) || (oldVal == null && newVal == null);
 
 
         if (!equal) {
             pushActive(oldMethod, newMethod);
         }
     }
-
 }
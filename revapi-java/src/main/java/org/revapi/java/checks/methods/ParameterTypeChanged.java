@@ -27,7 +27,6 @@ import org.revapi.java.spi.CheckBase;
 import org.revapi.java.spi.Code;
 import org.revapi.java.spi.JavaMethodElement;
 import org.revapi.java.spi.JavaMethodParameterElement;
-import org.revapi.java.spi.Util;
 
 /**
  * @author Lukas Krejci
@@ -37,11 +36,25 @@ public final class ParameterTypeChanged extends CheckBase {
 
     private boolean skip;
 
+    public ParameterTypeChanged() {
+        super(true);
+    }
+
     @Override
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.METHOD, Type.METHOD_PARAMETER);
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        return EnumSet.of(Attribute.TYPE);
+    }
+
     @Override
     protected void doVisitMethod(@Nullable JavaMethodElement oldMethod, @Nullable JavaMethodElement newMethod) {
         skip = oldMethod == null || newMethod == null ||
@@ -62,8 +75,8 @@ public final class ParameterTypeChanged extends CheckBase {
             return;
         }
 
-        String oldType = Util.toUniqueString(oldParameter.getModelRepresentation());
-        String newType = Util.toUniqueString(newParameter.getModelRepresentation());
+        String oldType = getOldTypeEnvironment().toUniqueString(oldParameter.getModelRepresentation());
+        String newType = getNewTypeEnvironment().toUniqueString(newParameter.getModelRepresentation());
 
         if (!oldType.equals(newType)) {
             pushActive(oldParameter, newParameter);
@@ -79,12 +92,12 @@ public final class ParameterTypeChanged extends CheckBase {
             return null;
         }
 
-        String oldType = Util.toHumanReadableString(params.oldElement.getModelRepresentation());
-        String newType = Util.toHumanReadableString(params.newElement.getModelRepresentation());
+        String oldType = getOldTypeEnvironment().toHumanReadableString(params.oldElement.getModelRepresentation());
+        String newType = getNewTypeEnvironment().toHumanReadableString(params.newElement.getModelRepresentation());
 
-        String oldErasedType = Util.toUniqueString(params.oldElement.getTypeEnvironment().getTypeUtils()
+        String oldErasedType = getOldTypeEnvironment().toUniqueString(getOldTypeEnvironment().getTypeUtils()
                 .erasure(params.oldElement.getModelRepresentation()));
-        String newErasedType = Util.toUniqueString(params.newElement.getTypeEnvironment().getTypeUtils()
+        String newErasedType = getNewTypeEnvironment().toUniqueString(getNewTypeEnvironment().getTypeUtils()
                 .erasure(params.newElement.getModelRepresentation()));
 
         if (!oldErasedType.equals(newErasedType)) {
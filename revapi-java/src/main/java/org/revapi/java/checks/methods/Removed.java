@@ -37,6 +37,10 @@ import org.revapi.java.spi.Util;
  */
 public final class Removed extends CheckBase {
 
+    public Removed() {
+        super(true);
+    }
+
     private static String getMethodSignature(@Nonnull CharSequence methodName, @Nonnull ExecutableType erasedMethod) {
         StringBuilder bld = new StringBuilder(methodName);
 
@@ -56,6 +60,17 @@ public final class Removed extends CheckBase {
         return EnumSet.of(Type.METHOD);
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        //only the removed elements are of interest and those are always visited
+        return EnumSet.noneOf(Attribute.class);
+    }
+
     @Override
     protected void doVisitMethod(@Nullable JavaMethodElement oldMethod, @Nullable JavaMethodElement newMethod) {
         if (oldMethod != null && newMethod == null && isAccessible(oldMethod)) {
@@ -29,7 +29,6 @@ import org.revapi.Difference;
 import org.revapi.java.spi.CheckBase;
 import org.revapi.java.spi.Code;
 import org.revapi.java.spi.JavaMethodElement;
-import org.revapi.java.spi.Util;
 
 /**
  * @author Lukas Krejci
@@ -37,11 +36,25 @@ import org.revapi.java.spi.Util;
  */
 public final class ReturnTypeChanged extends CheckBase {
 
+    public ReturnTypeChanged() {
+        super(true);
+    }
+
     @Override
     public EnumSet<Type> getInterest() {
         return EnumSet.of(Type.METHOD);
     }
 
+    @Override
+    public boolean isInterestedInIdenticalElements() {
+        return false;
+    }
+
+    @Override
+    public EnumSet<Attribute> getInspectedAttributes() {
+        return EnumSet.of(Attribute.TYPE);
+    }
+
     @Override
     protected void doVisitMethod(@Nullable JavaMethodElement oldMethod, @Nullable JavaMethodElement newMethod) {
         if (!isBothAccessible(oldMethod, newMethod)) {
@@ -51,8 +64,8 @@ public final class ReturnTypeChanged extends CheckBase {
         assert oldMethod != null;
         assert newMethod != null;
 
-        String oldRet = Util.toUniqueString(oldMethod.getModelRepresentation().getReturnType());
-        String newRet = Util.toUniqueString(newMethod.getModelRepresentation().getReturnType());
+        String oldRet = getOldTypeEnvironment().toUniqueString(oldMethod.getModelRepresentation().getReturnType());
+        String newRet = getNewTypeEnvironment().toUniqueString(newMethod.getModelRepresentation().getReturnType());
 
         if (!oldRet.equals(newRet)) {
             pushActive(oldMethod, newMethod);
@@ -73,11 +86,11 @@ public final class ReturnTypeChanged extends CheckBase {
         TypeMirror erasedOldType = getOldTypeEnvironment().getTypeUtils().erasure(oldReturnType);
         TypeMirror erasedNewType = getNewTypeEnvironment().getTypeUtils().erasure(newReturnType);
 
-        String oldR = Util.toUniqueString(oldReturnType);
-        String newR = Util.toUniqueString(newReturnType);
+        String oldR = getOldTypeEnvironment().toUniqueString(oldReturnType);
+        String newR = getNewTypeEnvironment().toUniqueString(newReturnType);
 
-        String oldER = Util.toUniqueString(erasedOldType);
-        String newER = Util.toUniqueString(erasedNewType);
+        String oldER = getOldTypeEnvironment().toUniqueString(erasedOldType);
+        String newER = getNewTypeEnvironment().toUniqueString(erasedNewType);
 
         Code code = null;
 
@@ -96,8 +109,8 @@ public final class ReturnTypeChanged extends CheckBase {
             }
         }
 
-        String oldHR = Util.toHumanReadableString(oldReturnType);
-        String newHR = Util.toHumanReadableString(newReturnType);
+        String oldHR = getOldTypeEnvironment().toHumanReadableString(oldReturnType);
+        String newHR = getNewTypeEnvironment().toHumanReadableString(newReturnType);
 
         return code == null ? null : Collections.singletonList(createDifference(code,
                 Code.attachmentsFor(methods.oldElement, methods.newElement,
@@ -118,6 +131,6 @@ public final class ReturnTypeChanged extends CheckBase {
     }
 
     private boolean isCovariant(TypeMirror superType, TypeMirror subType) {
-        return Util.isSubtype(subType, Collections.singletonList(superType), getNewTypeEnvironment().getTypeUtils());
+        return getNewTypeEnvironment().isSubtype(subType, Collections.singletonList(superType));
     }
 }
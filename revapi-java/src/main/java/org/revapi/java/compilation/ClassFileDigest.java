@@ -0,0 +1,642 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.java.compilation;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * The hash of the API-relevant contents of a class file together with the binary names of the types the class file
+ * refers to in its API.
+ *
+ * <p>The hash is computed over the class file with all the constant pool references resolved, so that it doesn't
+ * depend on the layout of the constant pool. It covers the access flags, the super types, the fields and methods with
+ * their signatures, constant and default values, thrown exceptions and parameter names and the annotations on all of
+ * them. The bytecode and the debug information are left out, because they don't influence the API of the class.
+ *
+ * <p>The resolved contents the hash is computed from are kept, too, so that the digests with equal hashes can be
+ * confirmed to be really equal using {@link #hasSameContent(ClassFileDigest)}.
+ *
+ * <p>The referenced types are the super types of the class and the types used in the signatures of its non-private
+ * fields and methods and in its annotations.
+ *
+ * @author Lukas Krejci
+ * @since 0.14.5
+ */
+public final class ClassFileDigest {
+    private static final int ACC_PRIVATE = 0x0002;
+
+    private final long hash;
+    private final byte[] content;
+    private final List<String> superTypes;
+    private final Set<String> referencedTypes;
+
+    private ClassFileDigest(long hash, byte[] content, List<String> superTypes, Set<String> referencedTypes) {
+        this.hash = hash;
+        this.content = content;
+        this.superTypes = superTypes;
+        this.referencedTypes = referencedTypes;
+    }
+
+    /**
+     * Reads the class file from the provided stream. The stream is not closed.
+     *
+     * @param classFile the stream with the contents of the class file
+     * @return the digest of the class file
+     * @throws IOException on error reading the stream or if the stream doesn't contain a valid class file
+     */
+    static ClassFileDigest read(InputStream classFile) throws IOException {
+        return new Reader(new DataInputStream(classFile)).read();
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * The hashes can collide, so this compares the whole API-relevant contents of the class files.
+     *
+     * @param other the digest to compare with
+     * @return true if both digests were computed from the same API-relevant contents
+     */
+    public boolean hasSameContent(ClassFileDigest other) {
+        return hash == other.hash && Arrays.equals(content, other.content);
+    }
+
+    /**
+     * @return the binary names of the super class and the implemented interfaces of the class
+     */
+    public List<String> getSuperTypes() {
+        return superTypes;
+    }
+
+    /**
+     * @return the binary names of the types referenced from the API of the class
+     */
+    public Set<String> getReferencedTypes() {
+        return referencedTypes;
+    }
+
+    private static final class Reader {
+        private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+        private static final long PRIME = 0x100000001b3L;
+
+        private final DataInputStream in;
+        private final Set<String> referencedTypes = new LinkedHashSet<>();
+        //the resolved contents of the class file, the hash is computed from them at the end
+        private byte[] content = new byte[1024];
+        private int length;
+        private String[] utf8s;
+        private int[] classNames;
+        private byte[] tags;
+        private long[] numbers;
+        private int[] strings;
+
+        Reader(DataInputStream in) {
+            this.in = in;
+        }
+
+        ClassFileDigest read() throws IOException {
+            if (in.readInt() != 0xCAFEBABE) {
+                throw new IOException("Not a class file.");
+            }
+
+            //minor and major version don't influence the API
+            in.readUnsignedShort();
+            in.readUnsignedShort();
+
+            readConstantPool();
+
+            add(in.readUnsignedShort());
+            add(className(in.readUnsignedShort()));
+
+            List<String> superTypes = new ArrayList<>(2);
+            String superClass = className(in.readUnsignedShort());
+            add(superClass);
+            if (superClass != null) {
+                superTypes.add(superClass);
+            }
+
+            int interfaceCount = in.readUnsignedShort();
+            add(interfaceCount);
+            for (int i = 0; i < interfaceCount; ++i) {
+                String iface = className(in.readUnsignedShort());
+                add(iface);
+                superTypes.add(iface);
+            }
+
+            referencedTypes.addAll(superTypes);
+
+            readMembers();
+            readMembers();
+            readAttributes(true);
+
+            long hash = OFFSET_BASIS;
+            for (int i = 0; i < length; ++i) {
+                hash = (hash ^ (content[i] & 0xFF)) * PRIME;
+            }
+
+            return new ClassFileDigest(hash, Arrays.copyOf(content, length), Collections.unmodifiableList(superTypes),
+                    Collections.unmodifiableSet(referencedTypes));
+        }
+
+        private void readConstantPool() throws IOException {
+            int count = in.readUnsignedShort();
+            utf8s = new String[count];
+            classNames = new int[count];
+            tags = new byte[count];
+            numbers = new long[count];
+            strings = new int[count];
+
+            for (int i = 1; i < count; ++i) {
+                byte tag = in.readByte();
+                tags[i] = tag;
+                switch (tag) {
+                case 1: //Utf8
+                    utf8s[i] = in.readUTF();
+                    break;
+                case 3: //Integer
+                case 4: //Float
+                    numbers[i] = in.readInt();
+                    break;
+                case 5: //Long
+                case 6: //Double
+                    numbers[i] = in.readLong();
+                    //8-byte constants take up two slots
+                    ++i;
+                    break;
+                case 7: //Class
+                    classNames[i] = in.readUnsignedShort();
+                    break;
+                case 8: //String
+                    strings[i] = in.readUnsignedShort();
+                    break;
+                case 16: //MethodType
+                case 19: //Module
+                case 20: //Package
+                    in.readUnsignedShort();
+                    break;
+                case 15: //MethodHandle
+                    in.readUnsignedByte();
+                    in.readUnsignedShort();
+                    break;
+                case 9: //Fieldref
+                case 10: //Methodref
+                case 11: //InterfaceMethodref
+                case 12: //NameAndType
+                case 17: //Dynamic
+                case 18: //InvokeDynamic
+                    in.readInt();
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag + ".");
+                }
+            }
+        }
+
+        private void readMembers() throws IOException {
+            int count = in.readUnsignedShort();
+            add(count);
+            for (int i = 0; i < count; ++i) {
+                int access = in.readUnsignedShort();
+                boolean api = (access & ACC_PRIVATE) == 0;
+                String name = utf8(in.readUnsignedShort());
+                String descriptor = utf8(in.readUnsignedShort());
+
+                add(access);
+                add(name);
+                add(descriptor);
+
+                if (api) {
+                    addReferencedTypes(descriptor);
+                }
+
+                readAttributes(api);
+            }
+        }
+
+        private void readAttributes(boolean api) throws IOException {
+            int count = in.readUnsignedShort();
+            for (int i = 0; i < count; ++i) {
+                String name = utf8(in.readUnsignedShort());
+                int length = in.readInt();
+                switch (name) {
+                case "Signature":
+                    add(name);
+                    String signature = utf8(in.readUnsignedShort());
+                    add(signature);
+                    if (api) {
+                        addReferencedTypes(signature);
+                    }
+                    break;
+                case "ConstantValue":
+                    add(name);
+                    addConstant(in.readUnsignedShort());
+                    break;
+                case "Exceptions":
+                    add(name);
+                    int exceptionCount = in.readUnsignedShort();
+                    add(exceptionCount);
+                    for (int j = 0; j < exceptionCount; ++j) {
+                        String exception = className(in.readUnsignedShort());
+                        add(exception);
+                        if (api && exception != null) {
+                            referencedTypes.add(exception);
+                        }
+                    }
+                    break;
+                case "InnerClasses":
+                    //the access flags of the nested classes are only recorded here
+                    add(name);
+                    int innerClassCount = in.readUnsignedShort();
+                    add(innerClassCount);
+                    for (int j = 0; j < innerClassCount; ++j) {
+                        add(className(in.readUnsignedShort()));
+                        add(className(in.readUnsignedShort()));
+                        add(utf8(in.readUnsignedShort()));
+                        add(in.readUnsignedShort());
+                    }
+                    break;
+                case "EnclosingMethod":
+                    add(name);
+                    add(className(in.readUnsignedShort()));
+                    add(in.readUnsignedShort() == 0 ? 0 : 1);
+                    break;
+                case "MethodParameters":
+                    add(name);
+                    int parameterCount = in.readUnsignedByte();
+                    add(parameterCount);
+                    for (int j = 0; j < parameterCount; ++j) {
+                        add(utf8(in.readUnsignedShort()));
+                        add(in.readUnsignedShort());
+                    }
+                    break;
+                case "AnnotationDefault":
+                    add(name);
+                    readElementValue(api);
+                    break;
+                case "RuntimeVisibleAnnotations":
+                case "RuntimeInvisibleAnnotations":
+                    add(name);
+                    readAnnotations(api);
+                    break;
+                case "RuntimeVisibleParameterAnnotations":
+                case "RuntimeInvisibleParameterAnnotations":
+                    add(name);
+                    int parameters = in.readUnsignedByte();
+                    add(parameters);
+                    for (int j = 0; j < parameters; ++j) {
+                        readAnnotations(api);
+                    }
+                    break;
+                case "RuntimeVisibleTypeAnnotations":
+                case "RuntimeInvisibleTypeAnnotations":
+                    add(name);
+                    readTypeAnnotations(api);
+                    break;
+                case "Deprecated":
+                case "Synthetic":
+                    add(name);
+                    skip(length);
+                    break;
+                default:
+                    //Code, LineNumberTable, SourceFile, StackMapTable, BootstrapMethods and the like
+                    skip(length);
+                }
+            }
+        }
+
+        private void readAnnotations(boolean api) throws IOException {
+            int count = in.readUnsignedShort();
+            add(count);
+            for (int i = 0; i < count; ++i) {
+                readAnnotation(api);
+            }
+        }
+
+        private void readAnnotation(boolean api) throws IOException {
+            String type = utf8(in.readUnsignedShort());
+            add(type);
+            if (api) {
+                addReferencedTypes(type);
+            }
+
+            int pairs = in.readUnsignedShort();
+            add(pairs);
+            for (int i = 0; i < pairs; ++i) {
+                add(utf8(in.readUnsignedShort()));
+                readElementValue(api);
+            }
+        }
+
+        private void readElementValue(boolean api) throws IOException {
+            int tag = in.readUnsignedByte();
+            add(tag);
+            switch (tag) {
+            case 'B':
+            case 'C':
+            case 'D':
+            case 'F':
+            case 'I':
+            case 'J':
+            case 'S':
+            case 'Z':
+            case 's':
+                addConstant(in.readUnsignedShort());
+                break;
+            case 'e':
+                String enumType = utf8(in.readUnsignedShort());
+                add(enumType);
+                add(utf8(in.readUnsignedShort()));
+                if (api) {
+                    addReferencedTypes(enumType);
+                }
+                break;
+            case 'c':
+                String classValue = utf8(in.readUnsignedShort());
+                add(classValue);
+                if (api) {
+                    addReferencedTypes(classValue);
+                }
+                break;
+            case '@':
+                readAnnotation(api);
+                break;
+            case '[':
+                int count = in.readUnsignedShort();
+                add(count);
+                for (int i = 0; i < count; ++i) {
+                    readElementValue(api);
+                }
+                break;
+            default:
+                throw new IOException("Unknown annotation element value tag " + (char) tag + ".");
+            }
+        }
+
+        private void readTypeAnnotations(boolean api) throws IOException {
+            int count = in.readUnsignedShort();
+            add(count);
+            for (int i = 0; i < count; ++i) {
+                int targetType = in.readUnsignedByte();
+                add(targetType);
+                switch (targetType) {
+                case 0x00:
+                case 0x01:
+                case 0x16:
+                    add(in.readUnsignedByte());
+                    break;
+                case 0x10:
+                case 0x17:
+                case 0x42:
+                case 0x43:
+                case 0x44:
+                case 0x45:
+                case 0x46:
+                    add(in.readUnsignedShort());
+                    break;
+                case 0x11:
+                case 0x12:
+                    add(in.readUnsignedShort());
+                    break;
+                case 0x13:
+                case 0x14:
+                case 0x15:
+                    break;
+                case 0x40:
+                case 0x41:
+                    int tableLength = in.readUnsignedShort();
+                    add(tableLength);
+                    for (int j = 0; j < tableLength; ++j) {
+                        add(in.readUnsignedShort());
+                        add(in.readUnsignedShort());
+                        add(in.readUnsignedShort());
+                    }
+                    break;
+                case 0x47:
+                case 0x48:
+                case 0x49:
+                case 0x4A:
+                case 0x4B:
+                    add(in.readUnsignedShort());
+                    add(in.readUnsignedByte());
+                    break;
+                default:
+                    throw new IOException("Unknown type annotation target type " + targetType + ".");
+                }
+
+                int pathLength = in.readUnsignedByte();
+                add(pathLength);
+                for (int j = 0; j < pathLength; ++j) {
+                    add(in.readUnsignedShort());
+                }
+
+                readAnnotation(api);
+            }
+        }
+
+        private void addConstant(int index) {
+            add(tags[index]);
+            if (tags[index] == 8) {
+                add(utf8(strings[index]));
+            } else {
+                add(numbers[index]);
+            }
+        }
+
+        /**
+         * Collects the class names from a descriptor or a generic signature. The formal type parameters and type
+         * variables are skipped, the nested classes of parameterized types are recorded using their binary names.
+         */
+        private void addReferencedTypes(String signature) {
+            new SignatureScanner(signature, referencedTypes).scan();
+        }
+
+        @Nullable
+        private String className(int index) {
+            return index == 0 ? null : utf8(classNames[index]).replace('/', '.');
+        }
+
+        private String utf8(int index) {
+            return utf8s[index];
+        }
+
+        private void skip(int length) throws IOException {
+            int skipped = 0;
+            while (skipped < length) {
+                int cnt = in.skipBytes(length - skipped);
+                if (cnt <= 0) {
+                    throw new IOException("Unexpected end of the class file.");
+                }
+                skipped += cnt;
+            }
+        }
+
+        private void add(long value) {
+            ensureCapacity(8);
+            for (int i = 0; i < 8; ++i) {
+                content[length++] = (byte) value;
+                value >>>= 8;
+            }
+        }
+
+        private void add(@Nullable String chars) {
+            if (chars == null) {
+                add(-1L);
+                return;
+            }
+
+            add(chars.length());
+
+            ensureCapacity(2 * chars.length());
+            for (int i = 0; i < chars.length(); ++i) {
+                char c = chars.charAt(i);
+                content[length++] = (byte) c;
+                content[length++] = (byte) (c >>> 8);
+            }
+        }
+
+        private void ensureCapacity(int additional) {
+            if (length + additional > content.length) {
+                content = Arrays.copyOf(content, Math.max(2 * content.length, length + additional));
+            }
+        }
+    }
+
+    private static final class SignatureScanner {
+        private final String signature;
+        private final Set<String> result;
+        private int pos;
+
+        SignatureScanner(String signature, Set<String> result) {
+            this.signature = signature;
+            this.result = result;
+        }
+
+        void scan() {
+            if (signature.startsWith("<")) {
+                formalTypeParameters();
+            }
+
+            while (pos < signature.length()) {
+                char c = peek();
+                if (c == '(' || c == ')' || c == '^') {
+                    ++pos;
+                } else {
+                    type();
+                }
+            }
+        }
+
+        private void formalTypeParameters() {
+            ++pos;
+            while (peek() != '>') {
+                pos = signature.indexOf(':', pos);
+                while (peek() == ':') {
+                    ++pos;
+                    char c = peek();
+                    if (c == 'L' || c == 'T' || c == '[') {
+                        type();
+                    }
+                }
+            }
+            ++pos;
+        }
+
+        private void type() {
+            switch (peek()) {
+            case 'L':
+                classType();
+                break;
+            case 'T':
+                pos = signature.indexOf(';', pos) + 1;
+                break;
+            case '[':
+                ++pos;
+                type();
+                break;
+            default:
+                //primitive types and void
+                ++pos;
+            }
+        }
+
+        private void classType() {
+            ++pos;
+            String name = identifier();
+            while (true) {
+                switch (signature.charAt(pos++)) {
+                case '<':
+                    typeArguments();
+                    break;
+                case '.':
+                    result.add(name);
+                    name = name + '$' + identifier();
+                    break;
+                default:
+                    result.add(name);
+                    return;
+                }
+            }
+        }
+
+        private void typeArguments() {
+            while (peek() != '>') {
+                char c = peek();
+                if (c == '*') {
+                    ++pos;
+                } else {
+                    if (c == '+' || c == '-') {
+                        ++pos;
+                    }
+                    type();
+                }
+            }
+            ++pos;
+        }
+
+        private String identifier() {
+            int start = pos;
+            while (true) {
+                char c = peek();
+                if (c == '<' || c == '.' || c == ';') {
+                    break;
+                }
+                ++pos;
+            }
+
+            return signature.substring(start, pos).replace('/', '.');
+        }
+
+        private char peek() {
+            if (pos >= signature.length()) {
+                throw new IllegalArgumentException("Malformed signature: " + signature);
+            }
+
+            return signature.charAt(pos);
+        }
+    }
+}
@@ -2,7 +2,6 @@ package org.revapi.java.compilation;
 
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
-import static java.util.stream.Collectors.toSet;
 
 import static org.revapi.java.AnalysisConfiguration.MissingClassReporting.ERROR;
 import static org.revapi.java.AnalysisConfiguration.MissingClassReporting.REPORT;
@@ -12,9 +11,10 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.util.AbstractMap;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumMap;
@@ -28,8 +28,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
@@ -52,7 +53,6 @@ import javax.lang.model.type.TypeMirror;
 import javax.lang.model.type.TypeVariable;
 import javax.lang.model.type.TypeVisitor;
 import javax.lang.model.type.WildcardType;
-import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.SimpleElementVisitor8;
 import javax.lang.model.util.SimpleTypeVisitor8;
@@ -64,7 +64,6 @@ import javax.tools.StandardLocation;
 
 import org.revapi.Archive;
 import org.revapi.java.AnalysisConfiguration;
-import org.revapi.java.FlatFilter;
 import org.revapi.java.model.AnnotationElement;
 import org.revapi.java.model.JavaElementBase;
 import org.revapi.java.model.JavaElementFactory;
@@ -73,7 +72,6 @@ import org.revapi.java.model.MissingClassElement;
 import org.revapi.java.spi.IgnoreCompletionFailures;
 import org.revapi.java.spi.UseSite;
 import org.revapi.java.spi.Util;
-import org.revapi.query.Filter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -117,7 +115,11 @@ final class ClasspathScanner {
     }
 
     void initTree() throws IOException {
-        List<ArchiveLocation> classPathLocations = classPath.keySet().stream().map(ArchiveLocation::new)
+        //scan the archives in the order they are on the compilation classpath so that the first occurrence of a class
+        //is the one the compiler sees, too
+        List<ArchiveLocation> classPathLocations = classPath.entrySet().stream()
+                .sorted(Comparator.comparing(e -> e.getValue().getName()))
+                .map(e -> new ArchiveLocation(e.getKey()))
                 .collect(toList());
 
         Scanner scanner = new Scanner();
@@ -232,8 +234,13 @@ final class ClasspathScanner {
 
     private final class Scanner {
         final Set<TypeElement> processed = new HashSet<>();
+        //the binary names of the processed types, so that the class files of the already scanned nested classes don't
+        //need to be looked up again
+        final Set<String> processedBinaryNames = new HashSet<>();
         final Map<TypeElement, Boolean> requiredTypes = new IdentityHashMap<>();
         final Map<TypeElement, TypeRecord> types = new IdentityHashMap<>();
+        //the type records indexed by their ids
+        final List<TypeRecord> records = new ArrayList<>();
         final TypeVisitor<TypeElement, Void> getTypeElement = new SimpleTypeVisitor8<TypeElement, Void>() {
             @Override
             protected TypeElement defaultAction(TypeMirror e, Void ignored) {
@@ -294,8 +301,17 @@ final class ClasspathScanner {
                     EnumSet.of(JavaFileObject.Kind.CLASS), true);
 
             for (JavaFileObject jfo : jfos) {
-                TypeElement type = Util.findTypeByBinaryName(environment.getElementUtils(),
-                        fileManager.inferBinaryName(location, jfo));
+                String binaryName = fileManager.inferBinaryName(location, jfo);
+
+                if (primaryApi && environment.getClassFileDigest(binaryName) == null) {
+                    readClassFileDigest(binaryName, jfo);
+                }
+
+                if (processedBinaryNames.contains(binaryName)) {
+                    continue;
+                }
+
+                TypeElement type = Util.findTypeByBinaryName(environment.getElementUtils(), binaryName);
 
                 //type can be null if it represents an anonymous or member class...
                 if (type != null) {
@@ -304,6 +320,15 @@ final class ClasspathScanner {
             }
         }
 
+        private void readClassFileDigest(String binaryName, JavaFileObject classFile) {
+            try (InputStream in = classFile.openInputStream()) {
+                environment.addClassFileDigest(binaryName, ClassFileDigest.read(in));
+            } catch (IOException | RuntimeException e) {
+                //the class will just be compared by its model
+                LOG.debug("Failed to compute the digest of the class file of " + binaryName + ".", e);
+            }
+        }
+
         void scanClass(ArchiveLocation loc, TypeElement type, boolean primaryApi) {
             try {
                 if (processed.contains(type)) {
@@ -314,6 +339,7 @@ final class ClasspathScanner {
                 Boolean wasAnno = requiredTypes.remove(type);
 
                 String bn = environment.getElementUtils().getBinaryName(type).toString();
+                processedBinaryNames.add(bn);
                 String cn = type.getQualifiedName().toString();
                 boolean includes = inclusionFilter.accepts(bn, cn);
                 boolean excludes = inclusionFilter.rejects(bn, cn);
@@ -397,59 +423,25 @@ final class ClasspathScanner {
             }
         }
 
-        void placeInTree(TypeRecord typeRecord) {
+        void placeInTree(TypeRecord typeRecord, Map<String, org.revapi.java.model.TypeElement> placedTypes,
+                         Set<TypeElement> roots) {
             TypeElement type = typeRecord.modelElement.getDeclaringElement();
 
-            if (!(type.getEnclosingElement() instanceof TypeElement)) {
+            org.revapi.java.model.TypeElement parent = null;
+            if (type.getEnclosingElement() instanceof TypeElement) {
+                //if there's a "gap" in the parents included in the model, the type becomes a root
+                TypeElement owner = (TypeElement) type.getEnclosingElement();
+                parent = placedTypes.get(owner.getQualifiedName().toString());
+            }
+
+            if (parent == null) {
                 environment.getTree().getRootsUnsafe().add(typeRecord.modelElement);
+                roots.add(type);
             } else {
-                ArrayDeque<String> nesting = new ArrayDeque<>();
-                type = (TypeElement) type.getEnclosingElement();
-                while (type != null) {
-                    nesting.push(type.getQualifiedName().toString());
-                    type = type.getEnclosingElement() instanceof TypeElement
-                            ? (TypeElement) type.getEnclosingElement()
-                            : null;
-                }
-
-                Function<String, Filter<org.revapi.java.model.TypeElement>> findByCN =
-                        cn -> FlatFilter.by(e -> cn.equals(e.getCanonicalName()));
-
-                List<org.revapi.java.model.TypeElement> parents = Collections.emptyList();
-                while (parents.isEmpty() && !nesting.isEmpty()) {
-                    parents = environment.getTree().searchUnsafe(
-                            org.revapi.java.model.TypeElement.class, false, findByCN.apply(nesting.pop()), null);
-                }
-
-                org.revapi.java.model.TypeElement parent = parents.isEmpty() ? null : parents.get(0);
-                while (!nesting.isEmpty()) {
-                    String cn = nesting.pop();
-                    parents = environment.getTree().searchUnsafe(
-                            org.revapi.java.model.TypeElement.class, false, findByCN.apply(cn),
-                            parent);
-                    if (parents.isEmpty()) {
-                        //we found a "gap" in the parents included in the model. let's start from the top
-                        //again
-                        do {
-                            parents = environment.getTree().searchUnsafe(
-                                    org.revapi.java.model.TypeElement.class, false, findByCN.apply(cn), null);
-                            if (parents.isEmpty() && !nesting.isEmpty()) {
-                                cn = nesting.pop();
-                            } else {
-                                break;
-                            }
-                        } while (!nesting.isEmpty());
-                    }
-
-                    parent = parents.isEmpty() ? null : parents.get(0);
-                }
-
-                if (parent == null) {
-                    environment.getTree().getRootsUnsafe().add(typeRecord.modelElement);
-                } else {
-                    parent.getChildren().add(typeRecord.modelElement);
-                }
+                parent.getChildren().add(typeRecord.modelElement);
             }
+
+            placedTypes.put(typeRecord.modelElement.getCanonicalName(), typeRecord.modelElement);
         }
 
         void scanField(TypeRecord owningType, VariableElement field) {
@@ -600,6 +592,7 @@ final class ClasspathScanner {
             TypeRecord rec = types.get(type);
             if (rec == null) {
                 rec = new TypeRecord();
+                rec.id = records.size();
                 rec.javacElement = type;
                 int depth = 0;
                 Element e = type.getEnclosingElement();
@@ -609,6 +602,7 @@ final class ClasspathScanner {
                 }
                 rec.nestingDepth = depth;
                 types.put(type, rec);
+                records.add(rec);
             }
 
             return rec;
@@ -642,6 +636,21 @@ final class ClasspathScanner {
             }
 
             environment.setTypeMap(types.stream().collect(toMap(tr -> tr.javacElement, tr -> tr.modelElement)));
+
+            release();
+        }
+
+        /**
+         * The type records, together with the use graph they form, are only needed to construct the tree. Let's not
+         * keep them in memory for the rest of the analysis in case the scanner outlives the scan. The model elements
+         * only keep the raw use sites, which they release as soon as they resolve them.
+         */
+        private void release() {
+            processed.clear();
+            processedBinaryNames.clear();
+            requiredTypes.clear();
+            types.clear();
+            records.clear();
         }
 
         private void handleMissingClasses(Map<TypeElement, TypeRecord> types) {
@@ -670,6 +679,8 @@ final class ClasspathScanner {
         private Set<TypeRecord> constructTree() {
             Set<TypeRecord> types = new HashSet<>();
             Set<TypeElement> ignored = new HashSet<>();
+            Set<TypeElement> roots = new HashSet<>();
+            Map<String, org.revapi.java.model.TypeElement> placedTypes = new HashMap<>();
             Comparator<Map.Entry<TypeElement, TypeRecord>> byNestingDepth = (a, b) -> {
                 TypeRecord ar = a.getValue();
                 TypeRecord br = b.getValue();
@@ -718,11 +729,8 @@ final class ClasspathScanner {
                             }
 
                             //find the first owning class that is part of our model
-                            List<TypeElement> siblings = environment.getTree().getRootsUnsafe().stream().map(
-                                    org.revapi.java.model.TypeElement::getDeclaringElement).collect(Collectors.toList());
-
                             while (!owners.isEmpty()) {
-                                if (ignored.contains(owners.peek()) || siblings.contains(owners.peek())) {
+                                if (ignored.contains(owners.peek()) || roots.contains(owners.peek())) {
                                     break;
                                 }
                                 owners.pop();
@@ -731,16 +739,12 @@ final class ClasspathScanner {
                             //if the user doesn't want this type included explicitly, we need to check in the parents
                             //if some of them wasn't explicitly excluded
                             if (!includes && !owners.isEmpty()) {
-                                do {
-                                    TypeElement o = owners.pop();
-                                    include = !ignored.contains(o) && siblings.contains(o);
-                                    siblings = ElementFilter.typesIn(o.getEnclosedElements());
-                                } while (include && !owners.isEmpty());
+                                include = owners.stream().noneMatch(ignored::contains);
                             }
                         }
 
                         if (include) {
-                            placeInTree(r);
+                            placeInTree(r, placedTypes, roots);
                             r.modelElement.setRawUseSites(r.useSites);
                             types.add(r);
                             environment.setSuperTypes(r.javacElement,
@@ -756,43 +760,75 @@ final class ClasspathScanner {
         }
 
         private void determineApiStatus() {
-            Set<TypeRecord> undetermined = new HashSet<>(this.types.values());
-            while (!undetermined.isEmpty()) {
-                undetermined = undetermined.stream()
-                        .filter(tr -> !tr.explicitlyExcluded)
-                        .filter(tr -> tr.inApi)
-                        .flatMap(tr -> tr.usedTypes.entrySet().stream()
-                                .map(e -> new AbstractMap.SimpleImmutableEntry<>(tr, e)))
-                        .filter(e -> movesToApi(e.getValue().getKey()))
-                        .flatMap(e -> e.getValue().getValue().stream())
-                        .filter(usedTr -> !usedTr.inApi)
-                        .filter(usedTr -> !usedTr.explicitlyExcluded)
-                        .map(usedTr -> {
-                            usedTr.inApi = true;
-                            usedTr.inApiThroughUse = true;
-                            return usedTr;
-                        })
-                        .collect(toSet());
-            }
+            BitSet inApi = new BitSet(records.size());
+            records.stream().filter(tr -> tr.inApi && !tr.explicitlyExcluded).forEach(tr -> inApi.set(tr.id));
+
+            markReachable(inApi, useGraph(ClasspathScanner::movesToApi),
+                    usedTr -> !usedTr.inApi && !usedTr.explicitlyExcluded,
+                    usedTr -> {
+                        usedTr.inApi = true;
+                        usedTr.inApiThroughUse = true;
+                    });
         }
 
         private void moveInnerClassesOfPrimariesToApi() {
-            Set<TypeRecord> primaries = this.types.values().stream()
-                    .filter(tr -> tr.primaryApi)
-                    .filter(tr -> tr.inApi)
-                    .filter(tr -> tr.nestingDepth == 0)
-                    .collect(toSet());
-
-            while (!primaries.isEmpty()) {
-                primaries = primaries.stream()
-                        .flatMap(tr -> tr.usedTypes.getOrDefault(UseSite.Type.CONTAINS, Collections.emptySet()).stream())
-                        .filter(containedTr -> containedTr.modelElement != null)
-                        .filter(containedTr -> !shouldBeIgnored(containedTr.modelElement.getDeclaringElement()))
-                        .map(containedTr -> {
-                            containedTr.inApi = true;
-                            return containedTr;
-                        })
-                        .collect(toSet());
+            BitSet primaries = new BitSet(records.size());
+            records.stream().filter(tr -> tr.primaryApi && tr.inApi && tr.nestingDepth == 0)
+                    .forEach(tr -> primaries.set(tr.id));
+
+            markReachable(primaries, useGraph(useType -> useType == UseSite.Type.CONTAINS),
+                    containedTr -> containedTr.modelElement != null
+                            && !shouldBeIgnored(containedTr.modelElement.getDeclaringElement()),
+                    containedTr -> containedTr.inApi = true);
+        }
+
+        /**
+         * Returns the adjacency lists of the type records (indexed by their ids) including only the uses of the
+         * provided types.
+         */
+        private int[][] useGraph(Predicate<UseSite.Type> useTypes) {
+            int[][] graph = new int[records.size()][];
+            for (TypeRecord tr : records) {
+                graph[tr.id] = tr.usedTypes.entrySet().stream()
+                        .filter(e -> useTypes.test(e.getKey()))
+                        .flatMap(e -> e.getValue().stream())
+                        .mapToInt(usedTr -> usedTr.id)
+                        .distinct()
+                        .toArray();
+            }
+
+            return graph;
+        }
+
+        /**
+         * Walks the use graph breadth-first from the start types. Each reachable type is visited at most once. If it
+         * matches the filter, it is marked and the walk continues through it.
+         */
+        private void markReachable(BitSet start, int[][] useGraph, Predicate<TypeRecord> filter,
+                                   Consumer<TypeRecord> mark) {
+            BitSet visited = (BitSet) start.clone();
+            int[] queue = new int[records.size()];
+            int head = 0;
+            int tail = 0;
+
+            for (int id = start.nextSetBit(0); id >= 0; id = start.nextSetBit(id + 1)) {
+                queue[tail++] = id;
+            }
+
+            while (head < tail) {
+                for (int usedId : useGraph[queue[head++]]) {
+                    if (visited.get(usedId)) {
+                        continue;
+                    }
+
+                    visited.set(usedId);
+
+                    TypeRecord usedTr = records.get(usedId);
+                    if (filter.test(usedTr)) {
+                        mark.accept(usedTr);
+                        queue[tail++] = usedId;
+                    }
+                }
             }
         }
 
@@ -827,6 +863,7 @@ final class ClasspathScanner {
                 };
 
                 Function<JavaElementBase<?, ?>, JavaElementBase<?, ?>> initChildren = e -> {
+                    environment.getTree().registerDeclaredElement(e);
                     initNonClassElementChildrenAndMoveToApi(tr, e, false);
                     return e;
                 };
@@ -859,47 +896,60 @@ final class ClasspathScanner {
         private void addInherited(TypeRecord target, TypeRecord superType, Set<String> methodOverrideMap) {
             Types types = environment.getTypeUtils();
 
-            superType.accessibleDeclaredNonClassMembers.stream()
-                    .map(e -> {
-                        if (e instanceof ExecutableElement) {
-                            ExecutableElement me = (ExecutableElement) e;
-                            if (!shouldAddInheritedMethodChild(me, methodOverrideMap)) {
-                                return null;
-                            }
-                        }
-
-                        TypeMirror elementType = types.asMemberOf((DeclaredType) target.javacElement.asType(), e);
+            for (InheritableMember m : getInheritableMembers(superType)) {
+                //remember the method to check if the next super type doesn't declare a method this one overrides
+                if (m.overrideKey != null && !methodOverrideMap.add(m.overrideKey)) {
+                    continue;
+                }
 
-                        JavaElementBase<?, ?> element = JavaElementFactory
-                                .elementFor(e, elementType, environment, superType.modelElement.getArchive());
+                TypeMirror elementType = m.needsSpecialization
+                        ? types.asMemberOf((DeclaredType) target.javacElement.asType(), m.element)
+                        : m.element.asType();
 
-                        element.setInherited(true);
+                JavaElementBase<?, ?> element = JavaElementFactory
+                        .elementFor(m.element, elementType, environment, m.declaringType.modelElement.getArchive());
 
-                        initNonClassElementChildrenAndMoveToApi(target, element, true);
+                element.setInherited(true);
 
-                        return element;
-                    })
-                    .filter(e -> e != null)
-                    .forEach(c -> target.modelElement.getChildren().add(c));
+                initNonClassElementChildrenAndMoveToApi(target, element, true);
 
-            for (TypeRecord st : superType.superTypes) {
-                addInherited(target, st, methodOverrideMap);
+                target.modelElement.getChildren().add(element);
             }
         }
 
-        private boolean shouldAddInheritedMethodChild(ExecutableElement methodElement, Set<String> overrideMap) {
-            if (methodElement.getKind() == ElementKind.CONSTRUCTOR) {
-                return false;
-            }
-            String overrideKey = getOverrideMapKey(methodElement);
-            boolean alreadyIncludedMethod = overrideMap.contains(overrideKey);
-            if (alreadyIncludedMethod) {
-                return false;
-            } else {
-                //remember this to check if the next super type doesn't declare a method this one overrides
-                overrideMap.add(overrideKey);
-                return true;
+        /**
+         * The members the type passes down to its subtypes - its own accessible members followed by the members
+         * inherited from its super types. Methods overridden lower in the hierarchy are left out. The list is computed
+         * only once and shared by all the subtypes.
+         */
+        private List<InheritableMember> getInheritableMembers(TypeRecord type) {
+            if (type.inheritableMembers == null) {
+                Set<Object> seen = new HashSet<>();
+                List<InheritableMember> members = new ArrayList<>();
+
+                for (Element e : type.accessibleDeclaredNonClassMembers) {
+                    if (e.getKind() == ElementKind.CONSTRUCTOR) {
+                        continue;
+                    }
+
+                    InheritableMember m = new InheritableMember(type, e);
+                    if (seen.add(m.overrideKey == null ? e : m.overrideKey)) {
+                        members.add(m);
+                    }
+                }
+
+                for (TypeRecord st : type.superTypes) {
+                    for (InheritableMember m : getInheritableMembers(st)) {
+                        if (seen.add(m.overrideKey == null ? m.element : m.overrideKey)) {
+                            members.add(m);
+                        }
+                    }
+                }
+
+                type.inheritableMembers = members;
             }
+
+            return type.inheritableMembers;
         }
 
         private void initNonClassElementChildrenAndMoveToApi(TypeRecord targetType, JavaElementBase<?, ?> parent,
@@ -907,8 +957,8 @@ final class ClasspathScanner {
             Types types = environment.getTypeUtils();
 
             if (targetType.inApi && !shouldBeIgnored(parent.getDeclaringElement())) {
-                TypeMirror representation = types.asMemberOf(targetType.modelElement.getModelRepresentation(),
-                        parent.getDeclaringElement());
+                //the parent has already been created as a member of the target type
+                TypeMirror representation = parent.getModelRepresentation();
 
                 representation.accept(new SimpleTypeVisitor8<Void, Void>() {
                     @Override protected Void defaultAction(TypeMirror e, Void aVoid) {
@@ -969,6 +1019,9 @@ final class ClasspathScanner {
                         parent.getArchive());
 
                 childEl.setInherited(inherited);
+                if (!inherited) {
+                    environment.getTree().registerDeclaredElement(childEl);
+                }
 
                 parent.getChildren().add(childEl);
 
@@ -1022,6 +1075,7 @@ final class ClasspathScanner {
     }
 
     private static final class TypeRecord {
+        int id = -1;
         Set<ClassPathUseSite> useSites = new HashSet<>(2);
         TypeElement javacElement;
         org.revapi.java.model.TypeElement modelElement;
@@ -1037,6 +1091,7 @@ final class ClasspathScanner {
         boolean primaryApi;
         int nestingDepth;
         boolean errored;
+        List<InheritableMember> inheritableMembers;
 
         @Override public String toString() {
             final StringBuilder sb = new StringBuilder("TypeRecord[");
@@ -1047,6 +1102,35 @@ final class ClasspathScanner {
         }
     }
 
+    private static final class InheritableMember {
+        final TypeRecord declaringType;
+        final Element element;
+        final String overrideKey;
+        //only members of generic types need to be specialized for the inheriting type using Types.asMemberOf()
+        final boolean needsSpecialization;
+
+        InheritableMember(TypeRecord declaringType, Element element) {
+            this.declaringType = declaringType;
+            this.element = element;
+            this.overrideKey = element instanceof ExecutableElement
+                    ? getOverrideMapKey((ExecutableElement) element)
+                    : null;
+            this.needsSpecialization = isInGenericContext(element);
+        }
+
+        private static boolean isInGenericContext(Element element) {
+            Element e = element.getEnclosingElement();
+            while (e instanceof TypeElement) {
+                if (!((TypeElement) e).getTypeParameters().isEmpty()) {
+                    return true;
+                }
+                e = e.getEnclosingElement();
+            }
+
+            return false;
+        }
+    }
+
     private static boolean movesToApi(UseSite.Type useType) {
         return useType.isMovingToApi();
     }
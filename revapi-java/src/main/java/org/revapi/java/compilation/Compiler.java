@@ -125,6 +125,8 @@ public final class Compiler {
                 throw new IllegalStateException("Failed to scan the classpath.", e);
             }
 
+            environment.getTree().computeStructuralFingerprints();
+
             if (Timing.LOG.isDebugEnabled()) {
                 Timing.LOG.debug("Crawl finished for " + environment.getApi());
             }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package org.revapi.java.compilation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of the values computed for the javac types and elements, which are compared by identity. When full,
+ * the least recently used entry is evicted, so that the cache doesn't keep alive all the transient type mirrors
+ * the compiler creates during the analysis.
+ *
+ * <p>The values are computed outside of the lock, so the computation can use the same cache recursively. Null values
+ * are not cached.
+ *
+ * @author Lukas Krejci
+ * @since 0.14.5
+ */
+final class IdentityCache<T> {
+    private final Map<IdentityKey, T> entries;
+    private long hits;
+    private long misses;
+
+    IdentityCache(int maxSize) {
+        this.entries = new LinkedHashMap<IdentityKey, T>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<IdentityKey, T> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    T get(Object key, Supplier<T> compute) {
+        return get(key, null, compute);
+    }
+
+    T get(Object first, Object second, Supplier<T> compute) {
+        IdentityKey key = new IdentityKey(first, second);
+
+        synchronized (entries) {
+            T value = entries.get(key);
+            if (value != null) {
+                hits++;
+                return value;
+            }
+
+            misses++;
+        }
+
+        T value = compute.get();
+
+        if (value != null) {
+            synchronized (entries) {
+                entries.put(key, value);
+            }
+        }
+
+        return value;
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    long getHits() {
+        synchronized (entries) {
+            return hits;
+        }
+    }
+
+    long getMisses() {
+        synchronized (entries) {
+            return misses;
+        }
+    }
+}
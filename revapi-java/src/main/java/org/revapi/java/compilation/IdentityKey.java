@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.java.compilation;
+
+/**
+ * A cache key for the javac types and elements, which are compared by identity.
+ *
+ * @author Lukas Krejci
+ * @since 0.14.5
+ */
+final class IdentityKey {
+    private final Object first;
+    private final Object second;
+
+    IdentityKey(Object first) {
+        this(first, null);
+    }
+
+    IdentityKey(Object first, Object second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        IdentityKey other = (IdentityKey) o;
+
+        return first == other.first && second == other.second;
+    }
+
+    @Override public int hashCode() {
+        return 31 * System.identityHashCode(first) + System.identityHashCode(second);
+    }
+}
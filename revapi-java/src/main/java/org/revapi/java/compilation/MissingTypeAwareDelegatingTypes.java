@@ -47,10 +47,46 @@ final class MissingTypeAwareDelegatingTypes implements Types {
 
     private final Types types;
 
+    /**
+     * The number of the most recently used results kept for each of the memoized methods. The checks ask repeatedly
+     * about the same few types of the elements being compared, so the recent results are the ones that are hit.
+     */
+    private static final int MEMO_CACHE_SIZE = 1024;
+
+    //the memoized results of the most frequently called methods. Only used once the model is fully constructed and
+    //therefore no longer changes.
+    private volatile boolean memoize;
+    private final IdentityCache<List<? extends TypeMirror>> directSupertypes = new IdentityCache<>(MEMO_CACHE_SIZE);
+    private final IdentityCache<TypeMirror> erasures = new IdentityCache<>(MEMO_CACHE_SIZE);
+    private final IdentityCache<Boolean> subtypes = new IdentityCache<>(MEMO_CACHE_SIZE);
+    private final IdentityCache<TypeMirror> membersOf = new IdentityCache<>(MEMO_CACHE_SIZE);
+
     public MissingTypeAwareDelegatingTypes(Types types) {
         this.types = types;
     }
 
+    /**
+     * Starts memoizing the results of the pure queries. Must only be called once the types can no longer change, i.e.
+     * after the scanning of the archives is complete.
+     */
+    void startMemoizing() {
+        memoize = true;
+    }
+
+    /**
+     * @return the number of the calls to the memoized methods that were answered from the caches
+     */
+    long getMemoizedHits() {
+        return directSupertypes.getHits() + erasures.getHits() + subtypes.getHits() + membersOf.getHits();
+    }
+
+    /**
+     * @return the number of the calls to the memoized methods that had to be computed
+     */
+    long getMemoizedMisses() {
+        return directSupertypes.getMisses() + erasures.getMisses() + subtypes.getMisses() + membersOf.getMisses();
+    }
+
     @Override
     public Element asElement(final TypeMirror t) {
         return IgnoreCompletionFailures.in(checkMissing(types::asElement, null), t);
@@ -63,6 +99,10 @@ final class MissingTypeAwareDelegatingTypes implements Types {
 
     @Override
     public boolean isSubtype(final TypeMirror t1, final TypeMirror t2) {
+        if (memoize) {
+            return subtypes.get(t1, t2,
+                    () -> IgnoreCompletionFailures.in(checkMissing(types::isSubtype, false), t1, t2));
+        }
         return IgnoreCompletionFailures.in(checkMissing(types::isSubtype, false), t1, t2);
     }
 
@@ -83,12 +123,19 @@ final class MissingTypeAwareDelegatingTypes implements Types {
 
     @Override
     public List<? extends TypeMirror> directSupertypes(TypeMirror t) {
-
+        if (memoize) {
+            return directSupertypes.get(t,
+                    () -> IgnoreCompletionFailures.in(checkMissing(types::directSupertypes, Collections.emptyList()),
+                            t));
+        }
         return IgnoreCompletionFailures.in(checkMissing(types::directSupertypes, Collections.emptyList()), t);
     }
 
     @Override
     public TypeMirror erasure(TypeMirror t) {
+        if (memoize) {
+            return erasures.get(t, () -> IgnoreCompletionFailures.in(checkMissing(types::erasure, t), t));
+        }
         return IgnoreCompletionFailures.in(checkMissing(types::erasure, t), t);
     }
 
@@ -178,6 +225,10 @@ final class MissingTypeAwareDelegatingTypes implements Types {
         if (element instanceof MissingTypeElement) {
             throw new IllegalArgumentException("Invalid element.");
         }
+        if (memoize) {
+            return membersOf.get(containing, element,
+                    () -> IgnoreCompletionFailures.in(types::asMemberOf, containing, element));
+        }
         return IgnoreCompletionFailures.in(types::asMemberOf, containing, element);
     }
 
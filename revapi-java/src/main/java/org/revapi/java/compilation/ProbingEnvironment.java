@@ -20,14 +20,21 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.function.Function;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 
@@ -41,19 +48,48 @@ import org.revapi.java.spi.Util;
  * @since 0.1
  */
 public final class ProbingEnvironment implements TypeEnvironment {
+    /**
+     * The number of the most recently used values kept in each of the memoization caches. The types of the elements
+     * being compared are requested repeatedly while the elements are analyzed, so this is enough to keep the hit rate
+     * high without keeping alive every type mirror ever computed.
+     */
+    private static final int MEMO_CACHE_SIZE = 1024;
+
     private final API api;
     private volatile ProcessingEnvironment processingEnvironment;
+    private volatile MissingTypeAwareDelegatingElements elementUtils;
+    private volatile MissingTypeAwareDelegatingTypes typeUtils;
     private final CountDownLatch compilationProgressLatch = new CountDownLatch(1);
     private final CountDownLatch compilationEnvironmentTeardownLatch = new CountDownLatch(1);
     private final JavaElementForest tree;
+    private final StringPool strings;
     private final Set<String> explicitExclusions = new HashSet<>();
     private final Set<String> explicitInclusions = new HashSet<>();
     private Map<TypeElement, org.revapi.java.model.TypeElement> typeMap;
     private Map<TypeElement, Set<TypeElement>> derivedTypes = new HashMap<>();
     private Map<TypeElement, Set<TypeElement>> superTypes = new HashMap<>();
+    private final IdentityCache<String> uniqueStrings = new IdentityCache<>(MEMO_CACHE_SIZE);
+    private final IdentityCache<String> humanReadableStrings = new IdentityCache<>(MEMO_CACHE_SIZE);
+    private final IdentityCache<Long> fingerprints = new IdentityCache<>(MEMO_CACHE_SIZE);
+    private final IdentityCache<String> annotationStrings = new IdentityCache<>(MEMO_CACHE_SIZE);
+    private final IdentityCache<List<TypeMirror>> superClassClosures = new IdentityCache<>(MEMO_CACHE_SIZE);
+    private final IdentityCache<List<TypeMirror>> superTypeClosures = new IdentityCache<>(MEMO_CACHE_SIZE);
+    private final IdentityCache<Set<String>> superTypeNames = new IdentityCache<>(MEMO_CACHE_SIZE);
+    private final IdentityCache<String> annotationValueStrings = new IdentityCache<>(MEMO_CACHE_SIZE);
+    private final Map<String, ClassFileDigest> classFileDigests = new ConcurrentHashMap<>();
+    private Map<String, org.revapi.java.model.TypeElement> typesByBinaryName;
 
     public ProbingEnvironment(API api) {
+        this(api, new StringPool());
+    }
+
+    /**
+     * @param api     the API this environment represents
+     * @param strings the pool of the strings shared with the environment of the other API of the analysis
+     */
+    public ProbingEnvironment(API api, StringPool strings) {
         this.api = api;
+        this.strings = strings;
         this.tree = new JavaElementForest(api);
     }
 
@@ -74,6 +110,8 @@ public final class ProbingEnvironment implements TypeEnvironment {
     }
 
     public void setProcessingEnvironment(ProcessingEnvironment env) {
+        this.elementUtils = env == null ? null : new MissingTypeAwareDelegatingElements(env.getElementUtils());
+        this.typeUtils = env == null ? null : new MissingTypeAwareDelegatingTypes(env.getTypeUtils());
         this.processingEnvironment = env;
     }
 
@@ -100,7 +138,7 @@ public final class ProbingEnvironment implements TypeEnvironment {
             throw new IllegalStateException("Types instance not yet available. It is too early to call this method." +
                     " Wait until after the archives are visited and the API model constructed.");
         }
-        return new MissingTypeAwareDelegatingElements(processingEnvironment.getElementUtils());
+        return elementUtils;
     }
 
     @Nonnull
@@ -111,23 +149,164 @@ public final class ProbingEnvironment implements TypeEnvironment {
             throw new IllegalStateException("Types instance not yet available. It is too early to call this method." +
                     " Wait until after the archives are visited and the API model constructed.");
         }
-        return new MissingTypeAwareDelegatingTypes(processingEnvironment.getTypeUtils());
+        return typeUtils;
+    }
+
+    @Nonnull
+    @Override
+    public String toUniqueString(@Nonnull TypeMirror type) {
+        return memoized(uniqueStrings, type, t -> strings.intern(Util.toUniqueString(t)));
+    }
+
+    @Nonnull
+    @Override
+    public String toHumanReadableString(@Nonnull TypeMirror type) {
+        return memoized(humanReadableStrings, type, t -> strings.intern(Util.toHumanReadableString(t)));
+    }
+
+    @Override
+    public long fingerprint(@Nonnull TypeMirror type) {
+        return memoized(fingerprints, type, Util::fingerprint);
+    }
+
+    @Nonnull
+    @Override
+    public List<TypeMirror> getAllSuperClasses(@Nonnull TypeMirror type) {
+        return memoized(superClassClosures, type,
+                t -> Collections.unmodifiableList(Util.getAllSuperClasses(getTypeUtils(), t)));
+    }
+
+    @Nonnull
+    @Override
+    public List<TypeMirror> getAllSuperTypes(@Nonnull TypeMirror type) {
+        return memoized(superTypeClosures, type,
+                t -> Collections.unmodifiableList(Util.getAllSuperTypes(getTypeUtils(), t)));
+    }
+
+    /**
+     * The memoized unique strings of the type and all its super types are remembered in a set, so the test only needs
+     * to look up the memoized unique strings of the supposed super types.
+     */
+    @Override
+    public boolean isSubtype(@Nonnull TypeMirror type, @Nonnull List<? extends TypeMirror> superTypes) {
+        Set<String> typeAndSuperTypes = memoized(superTypeNames, type, t -> {
+            List<TypeMirror> allSuperTypes = getAllSuperTypes(t);
+            Set<String> ret = new HashSet<>(allSuperTypes.size() + 1);
+            ret.add(toUniqueString(t));
+            for (TypeMirror st : allSuperTypes) {
+                ret.add(toUniqueString(st));
+            }
+            return ret;
+        });
+
+        for (TypeMirror st : superTypes) {
+            if (typeAndSuperTypes.contains(toUniqueString(st))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Nonnull
+    @Override
+    public String toHumanReadableString(@Nonnull AnnotationMirror annotation) {
+        return memoized(annotationStrings, annotation, a -> strings.intern(Util.toHumanReadableString(a)));
+    }
+
+    @Nonnull
+    @Override
+    public String toCanonicalString(@Nonnull AnnotationValue value) {
+        return memoized(annotationValueStrings, value, Util::toCanonicalString);
+    }
+
+    /**
+     * Looks up the string in the pool shared with the environment of the other API of the analysis. The names and
+     * signatures of the elements should be interned using this method so that the equal ones are the same instances
+     * in both APIs.
+     *
+     * @param string the string to intern
+     * @return the pooled instance equal to the string
+     */
+    public String intern(String string) {
+        return strings.intern(string);
+    }
+
+    /**
+     * The string representations of the types are only cached once the model is complete. Until then, the types
+     * can still be completed by the compiler.
+     */
+    private <K, T> T memoized(IdentityCache<T> cache, K type, Function<K, T> compute) {
+        if (!isScanningComplete()) {
+            return compute.apply(type);
+        }
+
+        return cache.get(type, () -> compute.apply(type));
     }
 
     //TODO make package private at a sufficient version bump
     public void setTypeMap(Map<TypeElement, org.revapi.java.model.TypeElement> typeMap) {
         this.typeMap = typeMap;
+        //the model is complete at this point. The transitive super types were only needed to compute the derived types
+        //and would otherwise be kept in memory for the whole duration of the analysis.
+        this.superTypes = null;
+        //... and can no longer change, so we can start memoizing the results of the type queries
+        if (typeUtils != null) {
+            typeUtils.startMemoizing();
+        }
     }
 
     public Map<TypeElement, org.revapi.java.model.TypeElement> getTypeMap() {
         return typeMap;
     }
 
+    /**
+     * Looks up the model of a type by its binary name. This can only be used once the scanning is complete.
+     *
+     * @param binaryName the binary name of the type
+     * @return the model of the type or null if the type is not part of the model
+     */
+    @Nullable
+    public org.revapi.java.model.TypeElement getModelType(String binaryName) {
+        if (typesByBinaryName == null) {
+            Map<String, org.revapi.java.model.TypeElement> index = new HashMap<>(typeMap.size());
+            for (org.revapi.java.model.TypeElement t : typeMap.values()) {
+                index.put(t.getBinaryName(), t);
+            }
+            typesByBinaryName = index;
+        }
+
+        return typesByBinaryName.get(binaryName);
+    }
+
+    /**
+     * Only the first digest of a class is kept. If the class is present in more than one primary archive, that's the
+     * one the class is loaded from.
+     */
+    void addClassFileDigest(String binaryName, ClassFileDigest digest) {
+        classFileDigests.putIfAbsent(binaryName, digest);
+    }
+
+    /**
+     * The class file digests are only available for the classes from the primary archives of the API.
+     *
+     * @param binaryName the binary name of the class
+     * @return the digest of the class file or null if the class doesn't come from the primary archives
+     */
+    @Nullable
+    public ClassFileDigest getClassFileDigest(String binaryName) {
+        return classFileDigests.get(binaryName);
+    }
+
     public Set<TypeElement> getDerivedTypes(TypeElement superType) {
         return derivedTypes.getOrDefault(superType, Collections.emptySet());
     }
 
     void setSuperTypes(TypeElement derivedType, Collection<TypeElement> superTypes) {
+        if (this.superTypes == null) {
+            throw new IllegalStateException("Super types can only be set before the scanning is complete.");
+        }
+
         this.superTypes.computeIfAbsent(derivedType, x -> new HashSet<>(superTypes));
         superTypes.forEach(t -> derivedTypes.computeIfAbsent(t, x -> new HashSet<>()).add(derivedType));
 
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.java.compilation;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * A pool of the names and signatures of the elements shared by the old and new environment of a single analysis.
+ *
+ * <p>Most of the signatures are the same in both APIs, so keeping only a single instance of each saves a lot of
+ * memory on large APIs. It also makes the comparison of the elements from the old and new API cheap, because the
+ * equal signatures are the same instances. Unlike {@link String#intern()}, the pool goes away with the analysis.
+ *
+ * <p>The pool is thread-safe, because the old and new APIs are scanned concurrently.
+ *
+ * @author Lukas Krejci
+ * @since 0.14.5
+ */
+public final class StringPool {
+    private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<>();
+
+    /**
+     * @param string the string to look up
+     * @return the instance from the pool equal to the provided string, or the provided string itself if the pool
+     * didn't contain it yet
+     */
+    public String intern(@Nullable String string) {
+        if (string == null) {
+            return null;
+        }
+
+        String ret = strings.get(string);
+        if (ret == null) {
+            ret = strings.putIfAbsent(string, string);
+            if (ret == null) {
+                ret = string;
+            }
+        }
+
+        return ret;
+    }
+}
@@ -21,7 +21,7 @@ import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import org.revapi.java.spi.JavaModelElement;
-import org.revapi.java.spi.Util;
+import org.revapi.java.spi.TypeEnvironment;
 
 /**
  * @author Lukas Krejci
@@ -39,7 +39,8 @@ public final class AnnotatedElementFilter extends AbstractIncludeExcludeFilter {
 
     @Override
     protected Stream<String> getTestedElementRepresentations(JavaModelElement element) {
-        return element.getDeclaringElement().getAnnotationMirrors().stream().map(Util::toHumanReadableString);
+        TypeEnvironment env = element.getTypeEnvironment();
+        return element.getDeclaringElement().getAnnotationMirrors().stream().map(env::toHumanReadableString);
     }
 
     @Override
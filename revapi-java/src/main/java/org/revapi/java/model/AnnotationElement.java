@@ -27,7 +27,6 @@ import org.revapi.java.compilation.ProbingEnvironment;
 import org.revapi.java.spi.JavaAnnotationElement;
 import org.revapi.java.spi.JavaModelElement;
 import org.revapi.java.spi.TypeEnvironment;
-import org.revapi.java.spi.Util;
 import org.revapi.simple.SimpleElement;
 
 /**
@@ -39,6 +38,8 @@ public final class AnnotationElement extends SimpleElement implements JavaAnnota
     private final ProbingEnvironment environment;
     private final Archive archive;
     private String comparableSignature;
+    private String humanReadableString;
+    private Long structuralFingerprint;
 
     public AnnotationElement(ProbingEnvironment environment, Archive archive, AnnotationMirror annotation) {
         this.environment = environment;
@@ -81,12 +82,41 @@ public final class AnnotationElement extends SimpleElement implements JavaAnnota
             return JavaElementFactory.compareByType(this, o);
         }
 
-        return getComparableSignature().compareTo(((AnnotationElement) o).getComparableSignature());
+        String mySignature = getComparableSignature();
+        String otherSignature = ((AnnotationElement) o).getComparableSignature();
+
+        return mySignature == otherSignature ? 0 : mySignature.compareTo(otherSignature);
     }
 
     @Override
     public @Nonnull String getFullHumanReadableString() {
-        return Util.toHumanReadableString(annotation);
+        if (humanReadableString == null) {
+            humanReadableString = environment.toHumanReadableString(annotation);
+        }
+
+        return humanReadableString;
+    }
+
+    /**
+     * @return the fingerprint of the annotation type and the explicitly specified attribute values
+     * @see JavaElementBase#getStructuralFingerprint()
+     */
+    public long getStructuralFingerprint() {
+        if (structuralFingerprint == null) {
+            structuralFingerprint = new StructuralFingerprint().add(getFullHumanReadableString()).get();
+        }
+
+        return structuralFingerprint;
+    }
+
+    /**
+     * @param other the annotation to compare with, usually from the other API
+     * @return true if the annotations have the same type and the same explicitly specified attribute values
+     * @see JavaElementBase#isStructurallyIdentical(JavaElementBase)
+     */
+    public boolean isStructurallyIdentical(AnnotationElement other) {
+        return getStructuralFingerprint() == other.getStructuralFingerprint()
+                && getFullHumanReadableString().equals(other.getFullHumanReadableString());
     }
 
     @Override
@@ -96,7 +126,8 @@ public final class AnnotationElement extends SimpleElement implements JavaAnnota
 
     private String getComparableSignature() {
         if (comparableSignature == null) {
-            comparableSignature = "@" + Util.toHumanReadableString(annotation.getAnnotationType());
+            String type = environment.toHumanReadableString(annotation.getAnnotationType());
+            comparableSignature = environment.intern("@" + type);
         }
 
         return comparableSignature;
@@ -17,6 +17,7 @@
 package org.revapi.java.model;
 
 import javax.annotation.Nonnull;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.TypeMirror;
 
@@ -46,6 +47,30 @@ public final class FieldElement extends JavaElementBase<VariableElement, TypeMir
         return "field";
     }
 
+    @Override
+    void appendStructure(StructuralFingerprint fp) {
+        super.appendStructure(fp);
+
+        VariableElement field = getDeclaringElement();
+        Object constant = field.getConstantValue();
+
+        fp.add(((javax.lang.model.element.TypeElement) field.getEnclosingElement()).getQualifiedName())
+                .add(constant == null ? null : constant.getClass().getName() + ":" + constant);
+
+        if (field.getKind() == ElementKind.ENUM_CONSTANT) {
+            //the order of the enum constants is part of the API
+            int ordinal = 0;
+            for (javax.lang.model.element.Element e : field.getEnclosingElement().getEnclosedElements()) {
+                if (e.equals(field)) {
+                    break;
+                } else if (e.getKind() == ElementKind.ENUM_CONSTANT) {
+                    ordinal++;
+                }
+            }
+            fp.add(ordinal);
+        }
+    }
+
     @Override
     protected String createComparableSignature() {
         return getDeclaringElement().getSimpleName().toString();
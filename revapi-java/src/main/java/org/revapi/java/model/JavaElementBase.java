@@ -16,11 +16,14 @@
 
 package org.revapi.java.model;
 
+import java.util.Iterator;
+import java.util.Objects;
 import java.util.SortedSet;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.type.TypeMirror;
 
 import org.revapi.API;
@@ -44,15 +47,21 @@ public abstract class JavaElementBase<E extends Element, T extends TypeMirror> e
     protected final E element;
     protected final T representation;
     private final Archive archive;
-    private String comparableSignature;
+    private final String comparableSignature;
+    private int hash;
     private boolean inherited = false;
     private String stringRepre;
+    private Long structuralFingerprint;
+    private JavaElementBase<?, ?> structurallyIdenticalTo;
 
     JavaElementBase(ProbingEnvironment env, Archive archive, E element, T representation) {
         this.environment = env;
         this.element = element;
         this.archive = archive;
         this.representation = representation;
+        //the signature only depends on the declaration, so it can be computed right away, unlike the human readable
+        //string that also depends on the parent of an inherited element
+        this.comparableSignature = env.intern(createComparableSignature());
     }
 
     @Nonnull
@@ -87,7 +96,11 @@ public abstract class JavaElementBase<E extends Element, T extends TypeMirror> e
             return JavaElementFactory.compareByType(this, o);
         }
 
-        return getComparableSignature().compareTo(((JavaElementBase<?, ?>) o).getComparableSignature());
+        String mySignature = getComparableSignature();
+        String otherSignature = ((JavaElementBase<?, ?>) o).getComparableSignature();
+
+        //the signatures are pooled, so the equal ones are usually the same instance
+        return mySignature == otherSignature ? 0 : mySignature.compareTo(otherSignature);
     }
 
     @Nonnull
@@ -129,6 +142,7 @@ public abstract class JavaElementBase<E extends Element, T extends TypeMirror> e
         String ret = createFullHumanReadableString();
 
         if (environment.isScanningComplete()) {
+            ret = environment.intern(ret);
             stringRepre = ret;
         }
 
@@ -151,19 +165,44 @@ public abstract class JavaElementBase<E extends Element, T extends TypeMirror> e
         return getHumanReadableElementType() + " " + decl;
     }
 
+    /**
+     * The hash code is consistent with {@link #equals(Object)} and is computed from the comparable signature and the
+     * binary name of the owning type, so that putting the elements into hash based collections doesn't need to build
+     * their human readable strings.
+     *
+     * <p>Because the owning type is only known once the element is placed in the tree, the elements should only be put
+     * into hash based collections after that.
+     */
     @Override
     public int hashCode() {
-        return getFullHumanReadableString().hashCode();
+        int ret = hash;
+        if (ret == 0) {
+            String signature = getComparableSignature();
+            ret = 31 * getClass().getName().hashCode() + (signature == null ? 0 : signature.hashCode());
+            hash = ret;
+        }
+
+        String owner = getOwningTypeName();
+        return owner == null ? ret : 31 * ret + owner.hashCode();
     }
 
+    /**
+     * Two elements are equal if they are of the same type, are members of the same type and
+     * {@link #compareTo(org.revapi.Element)} considers them equal.
+     */
     @Override
     public boolean equals(Object obj) {
         if (obj == this) {
             return true;
         }
 
-        return obj != null && obj instanceof JavaElementBase &&
-            getFullHumanReadableString().equals(((JavaElementBase<?, ?>) obj).getFullHumanReadableString());
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+
+        JavaElementBase<?, ?> other = (JavaElementBase<?, ?>) obj;
+
+        return compareTo(other) == 0 && Objects.equals(getOwningTypeName(), other.getOwningTypeName());
     }
 
     @Override
@@ -171,13 +210,129 @@ public abstract class JavaElementBase<E extends Element, T extends TypeMirror> e
         return getFullHumanReadableString();
     }
 
-    protected String getComparableSignature() {
-        if (comparableSignature == null) {
-            comparableSignature = createComparableSignature();
+    /**
+     * Returns the fingerprint of the API-relevant structure of this element - its declaration, modifiers, type
+     * (including the type parameters) and all its children, including the annotations. The elements from the old and
+     * new API with different fingerprints are different. Equal fingerprints make the elements identical for the
+     * purposes of the API checks with a very high probability, which {@link #isStructurallyIdentical(JavaElementBase)}
+     * then confirms.
+     *
+     * <p>This is only meant to be called once the scanning of the archives is complete.
+     *
+     * @return the structural fingerprint of the element
+     */
+    public long getStructuralFingerprint() {
+        if (structuralFingerprint == null) {
+            StructuralFingerprint fp = new StructuralFingerprint();
+            appendStructure(fp);
+
+            for (JavaElement c : getChildren()) {
+                if (c instanceof JavaElementBase) {
+                    fp.add(((JavaElementBase<?, ?>) c).getStructuralFingerprint());
+                } else if (c instanceof AnnotationElement) {
+                    fp.add(((AnnotationElement) c).getStructuralFingerprint());
+                }
+            }
+
+            structuralFingerprint = fp.get();
+        }
+
+        return structuralFingerprint;
+    }
+
+    /**
+     * Checks whether this element is structurally identical to the other element, i.e. whether it has the same
+     * structure as described in {@link #getStructuralFingerprint()}. The fingerprints only serve as a quick test. The
+     * equal fingerprints are confirmed by comparing the structures exactly, so that a collision of the fingerprints
+     * cannot make two different elements look identical.
+     *
+     * <p>This is only meant to be called once the scanning of the archives is complete.
+     *
+     * @param other the element to compare with, usually from the other API
+     * @return true if the elements are structurally identical, false otherwise
+     */
+    public boolean isStructurallyIdentical(JavaElementBase<?, ?> other) {
+        if (other == structurallyIdenticalTo) {
+            return true;
+        }
+
+        if (getClass() != other.getClass() || getStructuralFingerprint() != other.getStructuralFingerprint()
+                || getChildren().size() != other.getChildren().size()) {
+            return false;
+        }
+
+        StructuralFingerprint myStructure = StructuralFingerprint.exact();
+        StructuralFingerprint otherStructure = StructuralFingerprint.exact();
+        appendStructure(myStructure);
+        other.appendStructure(otherStructure);
+        if (!myStructure.getStructure().equals(otherStructure.getStructure())) {
+            return false;
+        }
+
+        //the children are hashed in this order, too
+        Iterator<JavaElement> myChildren = getChildren().iterator();
+        Iterator<JavaElement> otherChildren = other.getChildren().iterator();
+        while (myChildren.hasNext()) {
+            JavaElement myChild = myChildren.next();
+            JavaElement otherChild = otherChildren.next();
+            if (myChild instanceof JavaElementBase && otherChild instanceof JavaElementBase) {
+                if (!((JavaElementBase<?, ?>) myChild).isStructurallyIdentical((JavaElementBase<?, ?>) otherChild)) {
+                    return false;
+                }
+            } else if (myChild instanceof AnnotationElement && otherChild instanceof AnnotationElement) {
+                if (!((AnnotationElement) myChild).isStructurallyIdentical((AnnotationElement) otherChild)) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+
+        structurallyIdenticalTo = other;
+        return true;
+    }
+
+    /**
+     * Adds the structure of this element, excluding its children, to the fingerprint.
+     */
+    void appendStructure(StructuralFingerprint fp) {
+        E el = getDeclaringElement();
+
+        long modifiers = 0;
+        for (Modifier m : el.getModifiers()) {
+            modifiers |= 1L << m.ordinal();
         }
 
+        fp.add(el.getKind().name()).add(el.getSimpleName()).add(modifiers).add(inherited)
+                .add(environment, getModelRepresentation());
+    }
+
+    /**
+     * The comparable signatures of the members don't contain their type, because they are only ever compared with the
+     * other members of the same type. The inherited copies of a member even share their declaration, so the owning
+     * type has to be taken from the place of the element in the tree.
+     *
+     * @return the binary name of the closest type containing this element or null if it has not been placed in a type
+     */
+    @Nullable
+    private String getOwningTypeName() {
+        org.revapi.Element parent = getParent();
+        while (parent != null && !(parent instanceof TypeElement)) {
+            parent = parent.getParent();
+        }
+
+        return parent == null ? null : ((TypeElement) parent).getBinaryName();
+    }
+
+    protected String getComparableSignature() {
         return comparableSignature;
     }
 
+    /**
+     * Called once from the constructor, so the implementations can only rely on the declaring element and the model
+     * representation.
+     *
+     * @return the signature by which the elements of the same type are ordered
+     */
     protected abstract String createComparableSignature();
 }
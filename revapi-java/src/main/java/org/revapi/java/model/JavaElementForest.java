@@ -16,7 +16,9 @@
 
 package org.revapi.java.model;
 
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.SortedSet;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -27,6 +29,7 @@ import javax.annotation.Nullable;
 import org.revapi.API;
 import org.revapi.Element;
 import org.revapi.java.Timing;
+import org.revapi.java.spi.JavaModelElement;
 import org.revapi.query.Filter;
 import org.revapi.simple.SimpleElementForest;
 
@@ -37,6 +40,7 @@ import org.revapi.simple.SimpleElementForest;
 public final class JavaElementForest extends SimpleElementForest {
 
     private Future<?> compilation;
+    private final Map<javax.lang.model.element.Element, JavaModelElement> declaredElements = new IdentityHashMap<>();
     private static final ThreadLocal<Boolean> UNSAFE_MODE = new ThreadLocal<Boolean>() {
         @Override
         protected Boolean initialValue() {
@@ -52,6 +56,42 @@ public final class JavaElementForest extends SimpleElementForest {
         this.compilation = compilation;
     }
 
+    /**
+     * Registers the model element as the representation of its declaring element in the type that declares it (as
+     * opposed to the types that merely inherit it).
+     *
+     * <p>This is meant to be called only during the construction of the forest.
+     *
+     * @param element the non-inherited model element
+     */
+    public void registerDeclaredElement(JavaModelElement element) {
+        declaredElements.put(element.getDeclaringElement(), element);
+    }
+
+    /**
+     * @param declaringElement the javac element
+     * @return the model element representing the javac element in the type that declares it or null if there is no
+     * such element in the forest
+     */
+    @Nullable
+    public JavaModelElement getDeclaredElement(javax.lang.model.element.Element declaringElement) {
+        return declaredElements.get(declaringElement);
+    }
+
+    /**
+     * Computes the structural fingerprints of all the elements in the forest. This is meant to be called by the
+     * compilation thread once the forest is complete but before it is handed over to the analysis.
+     *
+     * <p>The fingerprints only depend on the model of this API so they can be computed while the other API is still
+     * being scanned. The analysis, which compares the elements of both APIs in a single thread, then finds them
+     * ready.
+     */
+    public void computeStructuralFingerprints() {
+        for (TypeElement t : getRootsUnsafe()) {
+            t.getStructuralFingerprint();
+        }
+    }
+
     @Nonnull
     @Override
     @SuppressWarnings("unchecked")
@@ -17,8 +17,11 @@
 package org.revapi.java.model;
 
 import javax.annotation.Nonnull;
+import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeParameterElement;
 import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeMirror;
 
 import org.revapi.Archive;
 import org.revapi.java.compilation.ProbingEnvironment;
@@ -47,6 +50,33 @@ public final class MethodElement extends JavaElementBase<ExecutableElement, Exec
         return "method";
     }
 
+    @Override
+    void appendStructure(StructuralFingerprint fp) {
+        //the fingerprint of the executable type only covers the erased parameter types, so we need to add the rest
+        super.appendStructure(fp);
+
+        ExecutableElement method = getDeclaringElement();
+        ExecutableType type = getModelRepresentation();
+
+        fp.add(((javax.lang.model.element.TypeElement) method.getEnclosingElement()).getQualifiedName())
+                .add(environment, type.getReturnType());
+
+        for (TypeMirror t : type.getParameterTypes()) {
+            fp.add(environment, t);
+        }
+
+        for (TypeMirror t : type.getThrownTypes()) {
+            fp.add(environment, t);
+        }
+
+        for (TypeParameterElement tp : method.getTypeParameters()) {
+            fp.add(environment, tp.asType());
+        }
+
+        AnnotationValue defaultValue = method.getDefaultValue();
+        fp.add(defaultValue == null ? null : Util.toHumanReadableString(defaultValue));
+    }
+
     @Override
     protected String createComparableSignature() {
         //the choice of '#' for a separator between the name and signature is because it precedes both '(' and any
@@ -64,6 +64,12 @@ public final class MethodParameterElement extends JavaElementBase<VariableElemen
         return "parameter";
     }
 
+    @Override
+    void appendStructure(StructuralFingerprint fp) {
+        super.appendStructure(fp);
+        fp.add(index);
+    }
+
     @Override
     public int compareTo(@Nonnull Element o) {
         int ret = super.compareTo(o);
@@ -78,31 +84,24 @@ public final class MethodParameterElement extends JavaElementBase<VariableElemen
 
     @Override
     public boolean equals(Object obj) {
-        if (obj == null) {
+        //the index is already taken into account by compareTo() called from super.equals()
+        if (!super.equals(obj)) {
             return false;
         }
 
-        if (obj == this) {
-            return true;
-        }
+        MethodParameterElement other = (MethodParameterElement) obj;
 
-        if (!(obj instanceof MethodParameterElement)) {
-            return false;
+        //the comparable signature only contains the name of the method, so the overloads need to be told apart
+        Element myMethod = getParent();
+        Element otherMethod = other.getParent();
+        if (myMethod != null && otherMethod != null) {
+            return myMethod.equals(otherMethod);
         }
 
-        MethodParameterElement other = (MethodParameterElement) obj;
-
         ExecutableElement myMethodElement = (ExecutableElement) getDeclaringElement().getEnclosingElement();
         ExecutableElement otherMethodElement = (ExecutableElement) other.getDeclaringElement().getEnclosingElement();
 
-        if (myMethodElement.getParameters().size() != otherMethodElement.getParameters().size()) {
-            return false;
-        }
-
-        String mySig = getComparableSignature();
-        String otherSig = other.getComparableSignature();
-
-        return mySig.equals(otherSig) && index == other.index;
+        return myMethodElement.getParameters().size() == otherMethodElement.getParameters().size();
     }
 
     @Override
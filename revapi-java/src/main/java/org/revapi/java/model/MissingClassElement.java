@@ -27,6 +27,12 @@ public final class MissingClassElement extends TypeElement {
         return (DeclaredType) element.asType();
     }
 
+    @Override
+    void appendStructure(StructuralFingerprint fp) {
+        //there is no structure to speak of
+        fp.add(getHumanReadableElementType()).add(getBinaryName());
+    }
+
     @Nonnull
     @Override
     protected String getHumanReadableElementType() {
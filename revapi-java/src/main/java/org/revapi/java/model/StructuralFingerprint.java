@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.java.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+import javax.lang.model.type.TypeMirror;
+
+import org.revapi.java.compilation.ProbingEnvironment;
+
+/**
+ * Accumulates the 64-bit FNV-1a hash of the structure of a model element.
+ *
+ * <p>Two different structures can have the same hash, so an equal hash needs to be confirmed by an exact comparison. For
+ * that, the fingerprint can also {@link #exact() record} the structure it is fed with instead of hashing it. The types
+ * are then recorded using their unique strings instead of their fingerprints.
+ *
+ * @author Lukas Krejci
+ * @since 0.14.5
+ */
+final class StructuralFingerprint {
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long hash = OFFSET_BASIS;
+    private final List<Object> structure;
+
+    StructuralFingerprint() {
+        this(null);
+    }
+
+    private StructuralFingerprint(@Nullable List<Object> structure) {
+        this.structure = structure;
+    }
+
+    /**
+     * @return a fingerprint that records the structure instead of hashing it
+     */
+    static StructuralFingerprint exact() {
+        return new StructuralFingerprint(new ArrayList<>());
+    }
+
+    StructuralFingerprint add(long value) {
+        if (structure != null) {
+            structure.add(value);
+            return this;
+        }
+
+        long h = hash;
+        for (int i = 0; i < 8; ++i) {
+            h = (h ^ (value & 0xFF)) * PRIME;
+            value >>>= 8;
+        }
+        hash = h;
+        return this;
+    }
+
+    StructuralFingerprint add(boolean value) {
+        return add(value ? 1L : 0L);
+    }
+
+    StructuralFingerprint add(@Nullable CharSequence chars) {
+        if (structure != null) {
+            structure.add(chars == null ? null : chars.toString());
+            return this;
+        }
+
+        if (chars == null) {
+            return add(-1L);
+        }
+
+        //the length makes the boundaries of the consecutive strings unambiguous
+        add(chars.length());
+
+        long h = hash;
+        for (int i = 0; i < chars.length(); ++i) {
+            char c = chars.charAt(i);
+            h = (h ^ (c & 0xFF)) * PRIME;
+            h = (h ^ (c >>> 8)) * PRIME;
+        }
+        hash = h;
+        return this;
+    }
+
+    StructuralFingerprint add(ProbingEnvironment environment, TypeMirror type) {
+        if (structure != null) {
+            structure.add(environment.toUniqueString(type));
+            return this;
+        }
+
+        return add(environment.fingerprint(type));
+    }
+
+    long get() {
+        return hash;
+    }
+
+    /**
+     * @return the recorded structure if this is an {@link #exact()} fingerprint, null otherwise
+     */
+    @Nullable
+    List<Object> getStructure() {
+        return structure;
+    }
+}
@@ -17,21 +17,16 @@
 package org.revapi.java.model;
 
 import java.util.Collections;
-import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 import javax.lang.model.element.Element;
-import javax.lang.model.element.ExecutableElement;
-import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeMirror;
-import javax.lang.model.util.SimpleElementVisitor8;
 
 import org.revapi.Archive;
-import org.revapi.java.FlatFilter;
 import org.revapi.java.compilation.ClassPathUseSite;
 import org.revapi.java.compilation.ProbingEnvironment;
 import org.revapi.java.spi.JavaModelElement;
@@ -62,8 +57,8 @@ public class TypeElement extends JavaElementBase<javax.lang.model.element.TypeEl
      */
     public TypeElement(ProbingEnvironment env, Archive archive, String binaryName, String canonicalName) {
         super(env, archive, null, null);
-        this.binaryName = binaryName;
-        this.canonicalName = canonicalName;
+        this.binaryName = env.intern(binaryName);
+        this.canonicalName = env.intern(canonicalName);
     }
 
     /**
@@ -76,8 +71,8 @@ public class TypeElement extends JavaElementBase<javax.lang.model.element.TypeEl
      */
     public TypeElement(ProbingEnvironment env, Archive archive, javax.lang.model.element.TypeElement element, DeclaredType type) {
         super(env, archive, element, type);
-        binaryName = env.getElementUtils().getBinaryName(element).toString();
-        canonicalName = element.getQualifiedName().toString();
+        binaryName = env.intern(env.getElementUtils().getBinaryName(element).toString());
+        canonicalName = env.intern(element.getQualifiedName().toString());
     }
 
     @Nonnull
@@ -120,7 +115,7 @@ public class TypeElement extends JavaElementBase<javax.lang.model.element.TypeEl
             } else {
                 useSites = rawUseSites.stream()
                         .map(u -> {
-                            JavaModelElement model = getModel(u.site, u.indexInParent);
+                            JavaModelElement model = getModel(u.site);
                             return model == null ? null : new UseSite(u.useType, model);
                         }).filter(Objects::nonNull)
                         .collect(Collectors.toSet());
@@ -149,7 +144,8 @@ public class TypeElement extends JavaElementBase<javax.lang.model.element.TypeEl
             return JavaElementFactory.compareByType(this, o);
         }
 
-        return binaryName.compareTo(((TypeElement) o).binaryName);
+        String otherBinaryName = ((TypeElement) o).binaryName;
+        return binaryName == otherBinaryName ? 0 : binaryName.compareTo(otherBinaryName);
     }
 
     @Override protected String createFullHumanReadableString() {
@@ -157,63 +153,45 @@ public class TypeElement extends JavaElementBase<javax.lang.model.element.TypeEl
         return getHumanReadableElementType() + " " + (rep == null ? canonicalName : Util.toHumanReadableString(rep));
     }
 
+    @Override
+    void appendStructure(StructuralFingerprint fp) {
+        super.appendStructure(fp);
+
+        fp.add(binaryName).add(inApi).add(inApiThroughUse);
+
+        //the checks look at the whole inheritance hierarchy, not just the direct super types
+        for (TypeMirror t : environment.getAllSuperTypes(getModelRepresentation())) {
+            fp.add(environment, t);
+        }
+    }
+
+    @Override
+    protected String getComparableSignature() {
+        return binaryName;
+    }
+
     @Override
     protected String createComparableSignature() {
-        //this isn't used, because compareTo is implemented differently
+        //the binary name is used instead, see getComparableSignature()
         return null;
     }
 
-    private JavaModelElement getModel(Element element, int indexInParent) {
-        return element.accept(new SimpleElementVisitor8<JavaModelElement, Void>() {
-            @Override public JavaModelElement visitVariable(VariableElement e, Void ignored) {
-                if (e.getEnclosingElement() instanceof javax.lang.model.element.TypeElement) {
-                    //this is a field
-                    TypeElement type = environment.getTypeMap().get(e.getEnclosingElement());
-                    if (type == null) {
-                        return null;
-                    }
-
-                    List<FieldElement> fs = type.searchChildren(FieldElement.class, false,
-                            FlatFilter.by(f -> f.getDeclaringElement().equals(e)));
-                    return fs.get(0);
-                } else if (e.getEnclosingElement() instanceof javax.lang.model.element.ExecutableElement) {
-                    //this is a method parameter
-                    Element methodEl = e.getEnclosingElement();
-                    TypeElement type = environment.getTypeMap().get(methodEl.getEnclosingElement());
-                    if (type == null) {
-                        return null;
-                    }
-
-                    List<MethodElement> ms = type.searchChildren(MethodElement.class, false,
-                            FlatFilter.by(m -> m.getDeclaringElement().equals(methodEl)));
-
-                    MethodElement method = ms.get(0);
-
-                    //now look for the parameter
-                    List<MethodParameterElement> params =
-                            method.searchChildren(MethodParameterElement.class, false, FlatFilter.by(p -> true));
-
-                    return params.get(indexInParent);
-                } else {
-                    return null;
-                }
-            }
-
-            @Override public JavaModelElement visitType(javax.lang.model.element.TypeElement e, Void ignored) {
-                return environment.getTypeMap().get(e);
-            }
+    private JavaModelElement getModel(Element element) {
+        if (element instanceof javax.lang.model.element.TypeElement) {
+            return environment.getTypeMap().get(element);
+        }
 
-            @Override public JavaModelElement visitExecutable(ExecutableElement e, Void ignored) {
-                TypeElement type = environment.getTypeMap().get(e.getEnclosingElement());
-                if (type == null) {
-                    return null;
-                }
+        //fields, methods and method parameters - only those of the types that made it into the tree are reported. The
+        //members of the excluded types and the types only present on the classpath are known to the forest, too.
+        Element enclosing = element.getEnclosingElement();
+        while (enclosing != null && !(enclosing instanceof javax.lang.model.element.TypeElement)) {
+            enclosing = enclosing.getEnclosingElement();
+        }
 
-                List<MethodElement> ms = type.searchChildren(MethodElement.class, false,
-                        FlatFilter.by(m -> m.getDeclaringElement().equals(e)));
+        if (enclosing == null || !environment.getTypeMap().containsKey(enclosing)) {
+            return null;
+        }
 
-                return ms.get(0);
-            }
-        }, null);
+        return environment.getTree().getDeclaredElement(element);
     }
 }
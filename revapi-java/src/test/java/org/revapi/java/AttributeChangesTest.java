@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.java;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.revapi.Report;
+import org.revapi.java.spi.Code;
+
+/**
+ * Each of the compared element pairs differs in a single attribute. The checks inspecting only the other attributes
+ * are left out for such a pair, so this makes sure that the checks inspecting the changed attribute are not.
+ *
+ * @author Lukas Krejci
+ * @since 0.14.5
+ */
+public class AttributeChangesTest extends AbstractJavaElementAnalyzerTest {
+
+    @Test
+    public void testKind() throws Exception {
+        assertReported("class Attributes.Kind", "interface Attributes.Kind", Code.CLASS_KIND_CHANGED);
+    }
+
+    @Test
+    public void testModifiers() throws Exception {
+        assertReported("method void Attributes::modifiers()", "method void Attributes::modifiers()",
+                Code.METHOD_NOW_FINAL);
+    }
+
+    @Test
+    public void testVisibility() throws Exception {
+        assertReported("method void Attributes::visibility()", "method void Attributes::visibility()",
+                Code.METHOD_VISIBILITY_INCREASED);
+    }
+
+    @Test
+    public void testFieldType() throws Exception {
+        assertReported("field Attributes.type", "field Attributes.type", Code.FIELD_TYPE_CHANGED);
+    }
+
+    @Test
+    public void testReturnType() throws Exception {
+        assertReported("method int Attributes::returnType()", "method long Attributes::returnType()",
+                Code.METHOD_RETURN_TYPE_CHANGED);
+    }
+
+    @Test
+    public void testTypeParameters() throws Exception {
+        assertReported("method <T> void Attributes::typeParameters()",
+                "method <T extends java.lang.Number> void Attributes::typeParameters()",
+                Code.GENERICS_FORMAL_TYPE_PARAMETER_CHANGED);
+    }
+
+    @Test
+    public void testSuperTypes() throws Exception {
+        assertReported("class Attributes.SuperTypes", "class Attributes.SuperTypes",
+                Code.CLASS_NOW_IMPLEMENTS_INTERFACE);
+    }
+
+    @Test
+    public void testThrownTypes() throws Exception {
+        assertReported("method void Attributes::thrownTypes()",
+                "method void Attributes::thrownTypes() throws java.io.IOException",
+                Code.METHOD_CHECKED_EXCEPTION_ADDED);
+    }
+
+    @Test
+    public void testConstantValue() throws Exception {
+        assertReported("field Attributes.CONSTANT", "field Attributes.CONSTANT", Code.FIELD_CONSTANT_VALUE_CHANGED);
+    }
+
+    @Test
+    public void testDefaultValue() throws Exception {
+        assertReported("method int Attributes.DefaultValue::value()", "method int Attributes.DefaultValue::value()",
+                Code.METHOD_DEFAULT_VALUE_CHANGED);
+    }
+
+    @Test
+    public void testAnnotations() throws Exception {
+        assertReported("method void Attributes::annotations()", "method void Attributes::annotations()",
+                Code.ELEMENT_NOW_DEPRECATED);
+    }
+
+    private void assertReported(String oldElement, String newElement, Code code) throws Exception {
+        List<Report> reports = runAnalysis(CollectingReporter.class, "v1/attributes/Attributes.java",
+                "v2/attributes/Attributes.java").getReports();
+
+        Assert.assertTrue(code.code() + " not reported on " + newElement + " in " + reports,
+                containsDifference(reports, oldElement, newElement, code.code()));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.java;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Lukas Krejci
+ * @since 0.14.5
+ */
+public class CheckProfilerTest extends AbstractJavaElementAnalyzerTest {
+
+    @Test
+    public void testSummaryIsWritten() throws Exception {
+        Path dir = Files.createTempDirectory("revapi-profile");
+        Path summaryFile = dir.resolve("profile").resolve("summary.json");
+        try {
+            runAnalysis(CollectingReporter.class, "{\"revapi\": {\"java\": {\"profile\": {\"file\": \""
+                            + summaryFile.toString().replace("\\", "\\\\") + "\"}}}}",
+                    "v1/attributes/Attributes.java", "v2/attributes/Attributes.java");
+
+            Assert.assertTrue(Files.isRegularFile(summaryFile));
+
+            ModelNode summary = ModelNode.fromJSONString(new String(Files.readAllBytes(summaryFile), UTF_8));
+            Assert.assertTrue(summary.get("allocationsMeasured").isDefined());
+
+            List<ModelNode> checks = summary.get("checks").asList();
+            Assert.assertFalse(checks.isEmpty());
+
+            long totalDifferences = 0;
+            for (ModelNode check : checks) {
+                Assert.assertTrue(check.get("check").asString().startsWith("org.revapi.java.checks."));
+                Assert.assertTrue(check.get("invocations").asLong() > 0);
+                Assert.assertTrue(check.get("totalTimeNanos").asLong() >= check.get("maxTimeNanos").asLong());
+                Assert.assertTrue(check.get("allocatedBytes").asLong() >= 0);
+                totalDifferences += check.get("differences").asLong();
+            }
+            Assert.assertTrue(totalDifferences > 0);
+
+            //sorted by the total time
+            for (int i = 1; i < checks.size(); ++i) {
+                Assert.assertTrue(checks.get(i - 1).get("totalTimeNanos").asLong()
+                        >= checks.get(i).get("totalTimeNanos").asLong());
+            }
+
+            List<ModelNode> transforms = summary.get("transforms").asList();
+            Assert.assertFalse(transforms.isEmpty());
+            for (ModelNode transform : transforms) {
+                Assert.assertTrue(transform.get("transform").isDefined());
+                Assert.assertTrue(transform.get("invocations").asLong() > 0);
+                Assert.assertTrue(transform.get("totalTimeNanos").asLong() >= transform.get("maxTimeNanos").asLong());
+            }
+        } finally {
+            deleteDir(dir);
+        }
+    }
+
+    @Test
+    public void testVisitAndVisitEndAreOneInvocation() throws Exception {
+        Path dir = Files.createTempDirectory("revapi-profile");
+        Path summaryFile = dir.resolve("summary.json");
+        try {
+            runAnalysis(CollectingReporter.class, "{\"revapi\": {\"java\": {\"profile\": {\"file\": \""
+                            + summaryFile.toString().replace("\\", "\\\\") + "\"}}}}",
+                    "v1/attributes/Attributes.java", "v2/attributes/Attributes.java");
+
+            ModelNode summary = ModelNode.fromJSONString(new String(Files.readAllBytes(summaryFile), UTF_8));
+
+            //the check only inspects the kind, so it is only called for the one class that changed its kind. The visit of
+            //the class and the corresponding visitEnd are one invocation.
+            for (ModelNode check : summary.get("checks").asList()) {
+                if (check.get("check").asString().equals("org.revapi.java.checks.classes.KindChanged")) {
+                    Assert.assertEquals(1, check.get("invocations").asLong());
+                    Assert.assertEquals(1, check.get("differences").asLong());
+                    return;
+                }
+            }
+
+            Assert.fail("KindChanged check not profiled.");
+        } finally {
+            deleteDir(dir);
+        }
+    }
+}
@@ -5,13 +5,19 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.ServiceLoader;
 
 import org.jboss.dmr.ModelNode;
 import org.junit.Assert;
 import org.junit.Test;
+import org.revapi.API;
 import org.revapi.AnalysisContext;
+import org.revapi.ArchiveAnalyzer;
+import org.revapi.java.spi.Check;
 import org.revapi.java.spi.CheckBase;
 
 /**
@@ -108,6 +114,93 @@ public class CheckSpecificConfigurationTest {
         Assert.assertTrue(check.testCheck);
     }
 
+    @Test
+    public void testNewInstancesConfiguredForEachDifferenceAnalyzer() throws Exception {
+        List<CheckBase> instances = new ArrayList<>();
+
+        class FakeCheck extends CheckBase {
+            Boolean testCheck = null;
+
+            @Override
+            public EnumSet<Type> getInterest() {
+                return EnumSet.of(Type.CLASS);
+            }
+
+            @Nullable
+            @Override
+            public String getExtensionId() {
+                return "testCheck";
+            }
+
+            @Nullable
+            @Override
+            public Reader getJSONSchema() {
+                return new StringReader("{\"type\": \"boolean\"}");
+            }
+
+            @Override
+            public void initialize(@Nonnull AnalysisContext analysisContext) {
+                super.initialize(analysisContext);
+                testCheck = analysisContext.getConfiguration().asBoolean();
+            }
+
+            @Override
+            public Check newInstance() {
+                FakeCheck ret = new FakeCheck();
+                instances.add(ret);
+                return ret;
+            }
+        }
+
+        FakeCheck check = new FakeCheck();
+        JavaApiAnalyzer analyzer = new JavaApiAnalyzer(Collections.singleton(check));
+        String config = "{\"checks\": {\"testCheck\": true}}";
+
+        analyzer.initialize(AnalysisContext.builder().build().copyWithConfiguration(ModelNode.fromJSONString(config)));
+
+        try {
+            API api = new API(Collections.emptyList(), null);
+            ArchiveAnalyzer oldArchive = analyzer.getArchiveAnalyzer(api);
+            ArchiveAnalyzer newArchive = analyzer.getArchiveAnalyzer(api);
+
+            analyzer.getDifferenceAnalyzer(oldArchive, newArchive);
+            analyzer.getDifferenceAnalyzer(oldArchive, newArchive);
+
+            Assert.assertEquals(2, instances.size());
+            Assert.assertNotSame(instances.get(0), instances.get(1));
+
+            for (CheckBase c : instances) {
+                Assert.assertNotSame(check, c);
+                Assert.assertTrue(((FakeCheck) c).testCheck);
+                Assert.assertTrue(c.getAnalysisContext().getConfiguration().asBoolean());
+                Assert.assertNotNull(c.getOldTypeEnvironment());
+                Assert.assertNotNull(c.getNewTypeEnvironment());
+            }
+        } finally {
+            analyzer.close();
+        }
+    }
+
+    @Test
+    public void testChecksSharedUnlessTheyOptIn() throws Exception {
+        class SharedCheck extends CheckBase {
+            @Override
+            public EnumSet<Type> getInterest() {
+                return EnumSet.of(Type.CLASS);
+            }
+        }
+
+        Assert.assertNull(new SharedCheck().newInstance());
+
+        for (Check check : ServiceLoader.load(Check.class, JavaApiAnalyzer.class.getClassLoader())) {
+            Check instance = check.newInstance();
+
+            Assert.assertNotNull(check.getClass().getName(), instance);
+            Assert.assertNotSame(check, instance);
+            Assert.assertSame(check.getClass(), instance.getClass());
+        }
+    }
+
     @SuppressWarnings("Duplicates")
     private String slurp(Reader rdr) throws IOException {
         char[] buffer = new char[512];
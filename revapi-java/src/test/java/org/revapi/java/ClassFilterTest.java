@@ -103,6 +103,36 @@ public class ClassFilterTest extends AbstractJavaElementAnalyzerTest {
                         "method void classfilter.B.BA::<init>()").collect(toSet()));
     }
 
+    @Test
+    public void testMultipleRegexFilters() throws Exception {
+        testWith("{\"revapi\": {\"java\": {\"filter\": {\"classes\": {\"regex\": true," +
+                " \"exclude\": [\"classfilter\\\\.A\", \"classfilter\\\\.B\\\\.BB\", \"\\\\Qclassfilter.C\\\\E\"]}}}}}",
+                Stream.of(
+                        "class classfilter.B",
+                        "field classfilter.B.field",
+                        "method void classfilter.B::m()",
+                        "method void classfilter.B::<init>()",
+                        "class classfilter.B.BA",
+                        "method void classfilter.B.BA::<init>()").collect(toSet()));
+    }
+
+    @Test
+    public void testMultipleRegexFiltersWithBackReferences() throws Exception {
+        testWith("{\"revapi\": {\"java\": {\"filter\": {\"classes\": {\"regex\": true," +
+                " \"exclude\": [\"classfilter\\\\.(A)\\\\.\\\\1A\", \"classfilter\\\\.(B)\\\\.\\\\1B\"]}}}}}",
+                Stream.of(
+                        "class classfilter.A",
+                        "method void classfilter.A::m()",
+                        "method void classfilter.A::<init>()",
+                        "class classfilter.A.AB",
+                        "method void classfilter.A.AB::<init>()",
+                        "class classfilter.B",
+                        "field classfilter.B.field",
+                        "method void classfilter.B::m()",
+                        "method void classfilter.B::<init>()",
+                        "class classfilter.B.BA",
+                        "method void classfilter.B.BA::<init>()").collect(toSet()));
+    }
 
     private void testWith(String configJSON, Set<String> expectedResults) throws Exception {
         ArchiveAndCompilationPath archive = createCompiledJar("test.jar", "classfilter/A.java", "classfilter/B.java");
@@ -144,6 +144,16 @@ public class FieldChecksTest extends AbstractJavaElementAnalyzerTest {
         Assert.assertEquals(1, (int) reporter.getProblemCounters().get(Code.FIELD_SERIAL_VERSION_UID_UNCHANGED.code()));
     }
 
+    @Test
+    public void testSerializabilityChangesWithJvmChangeDetection() throws Exception {
+        //the added private field is not part of the model but changes the default serialVersionUID
+        ProblemOccurrenceReporter reporter = runAnalysis(ProblemOccurrenceReporter.class,
+                "{\"revapi\": {\"java\": {\"checks\": {\"serialVersionUID\": {\"changeDetection\": \"jvm\"}}}}}",
+                "v1/fields/Serial.java", "v2/fields/Serial.java");
+
+        Assert.assertEquals(1, (int) reporter.getProblemCounters().get(Code.FIELD_SERIAL_VERSION_UID_UNCHANGED.code()));
+    }
+
     @Test
     public void testEnumConstantOrderChanges() throws Exception {
         ProblemOccurrenceReporter reporter = runAnalysis(ProblemOccurrenceReporter.class,
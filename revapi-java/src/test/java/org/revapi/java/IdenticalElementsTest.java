@@ -0,0 +1,208 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.java;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nullable;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.revapi.API;
+import org.revapi.AnalysisContext;
+import org.revapi.ArchiveAnalyzer;
+import org.revapi.DifferenceAnalyzer;
+import org.revapi.Element;
+import org.revapi.ElementForest;
+import org.revapi.Revapi;
+import org.revapi.java.compilation.ProbingEnvironment;
+import org.revapi.java.spi.CheckBase;
+import org.revapi.java.spi.JavaMethodElement;
+import org.revapi.java.spi.JavaTypeElement;
+
+/**
+ * @author Lukas Krejci
+ * @since 0.14.5
+ */
+public class IdenticalElementsTest extends AbstractJavaElementAnalyzerTest {
+
+    private static final List<String> visits = Collections.synchronizedList(new ArrayList<>());
+
+    private ArchiveAndCompilationPath v1;
+    private ArchiveAndCompilationPath v2;
+
+    @Before
+    public void compile() throws Exception {
+        visits.clear();
+        v1 = createCompiledJar("v1", "v1/identical/Identical.java");
+        v2 = createCompiledJar("v2", "v2/identical/Identical.java");
+    }
+
+    @After
+    public void delete() throws Exception {
+        deleteDir(v1.compilationPath);
+        deleteDir(v2.compilationPath);
+    }
+
+    @Test
+    public void testIdenticalElementsAreOnlyVisitedByInterestedChecks() throws Exception {
+        analyze();
+
+        Assert.assertTrue(visits.contains("compare: class Identical.Changed"));
+        Assert.assertTrue(visits.contains("compare: method void Identical.Changed::method(int)"));
+        Assert.assertFalse(visits.contains("compare: class Identical.Same"));
+        Assert.assertFalse(visits.contains("compare: method void Identical.Same::method(int)"));
+    }
+
+    @Test
+    public void testChecksWithDefaultInterestVisitIdenticalElements() throws Exception {
+        analyze();
+
+        Assert.assertTrue(visits.contains("default: class Identical.Changed"));
+        Assert.assertTrue(visits.contains("default: method void Identical.Changed::method(int)"));
+        Assert.assertTrue(visits.contains("default: class Identical.Same"));
+        Assert.assertTrue(visits.contains("default: method void Identical.Same::method(int)"));
+    }
+
+    @Test
+    public void testUnchangedClassFilesSkipTheComparisonOfTheModels() throws Exception {
+        List<String> identicalTypes = new ArrayList<>();
+        analyze((oldEnvironment, newEnvironment) -> {
+            UnchangedClassFiles unchangedClassFiles = new UnchangedClassFiles(oldEnvironment, newEnvironment);
+            for (String type : Arrays.asList("Identical", "Identical$Same", "Identical$Changed",
+                    "Identical$SameEnum")) {
+                if (unchangedClassFiles.areIdentical(oldEnvironment.getModelType(type),
+                        newEnvironment.getModelType(type))) {
+                    identicalTypes.add(type);
+                }
+            }
+        });
+
+        //the super types from the JDK don't prevent the class files from being compared
+        Assert.assertEquals(Arrays.asList("Identical$Same", "Identical$SameEnum"), identicalTypes);
+
+        //the unchanged class is skipped while the changed one is still compared and reported
+        Assert.assertFalse(visits.contains("compare: class Identical.Same"));
+        Assert.assertFalse(visits.contains("compare: class Identical.SameEnum"));
+        Assert.assertTrue(visits.contains("compare: class Identical.Changed"));
+        Assert.assertTrue(visits.contains("compare: method void Identical.Changed::method(int)"));
+    }
+
+    private void analyze() throws Exception {
+        analyze(null);
+    }
+
+    private void analyze(@Nullable BiConsumer<ProbingEnvironment, ProbingEnvironment> beforeDifferenceAnalysis)
+            throws Exception {
+        JavaApiAnalyzer apiAnalyzer = new JavaApiAnalyzer(Arrays.asList(new CompareOnlyCheck(), new DefaultCheck()));
+        Revapi r = new Revapi(singleton(JavaApiAnalyzer.class), emptySet(), emptySet(), emptySet());
+        AnalysisContext ctx = AnalysisContext.builder(r).build();
+        apiAnalyzer.initialize(r.prepareAnalysis(ctx).getFirstConfigurationOrNull(JavaApiAnalyzer.class));
+
+        ArchiveAnalyzer oldAnalyzer = apiAnalyzer.getArchiveAnalyzer(
+                new API(Collections.singletonList(new ShrinkwrapArchive(v1.archive)), null));
+        ArchiveAnalyzer newAnalyzer = apiAnalyzer.getArchiveAnalyzer(
+                new API(Collections.singletonList(new ShrinkwrapArchive(v2.archive)), null));
+
+        ElementForest oldForest = oldAnalyzer.analyze();
+        ElementForest newForest = newAnalyzer.analyze();
+
+        if (beforeDifferenceAnalysis != null) {
+            //the models are only complete once the compilation finishes
+            oldForest.getRoots();
+            newForest.getRoots();
+
+            beforeDifferenceAnalysis.accept(((JavaArchiveAnalyzer) oldAnalyzer).getProbingEnvironment(),
+                    ((JavaArchiveAnalyzer) newAnalyzer).getProbingEnvironment());
+        }
+
+        try (DifferenceAnalyzer differenceAnalyzer = apiAnalyzer.getDifferenceAnalyzer(oldAnalyzer, newAnalyzer)) {
+            differenceAnalyzer.open();
+            analyze(differenceAnalyzer, oldForest.getRoots(), newForest.getRoots());
+        } finally {
+            apiAnalyzer.close();
+        }
+    }
+
+    private static void analyze(DifferenceAnalyzer analyzer, Iterable<? extends Element> oldElements,
+                                Iterable<? extends Element> newElements) {
+        for (Element o : oldElements) {
+            for (Element n : newElements) {
+                if (o.compareTo(n) == 0) {
+                    analyzer.beginAnalysis(o, n);
+                    if (analyzer.isDescendRequired(o, n)) {
+                        analyze(analyzer, o.getChildren(), n.getChildren());
+                    }
+                    analyzer.endAnalysis(o, n);
+                }
+            }
+        }
+    }
+
+    public static final class CompareOnlyCheck extends CheckBase {
+        @Override
+        public EnumSet<Type> getInterest() {
+            return EnumSet.of(Type.CLASS, Type.METHOD);
+        }
+
+        @Override
+        public boolean isInterestedInIdenticalElements() {
+            return false;
+        }
+
+        @Override
+        protected void doVisitClass(@Nullable JavaTypeElement oldType, @Nullable JavaTypeElement newType) {
+            visits.add("compare: " + newType);
+        }
+
+        @Override
+        protected void doVisitMethod(@Nullable JavaMethodElement oldMethod, @Nullable JavaMethodElement newMethod) {
+            visits.add("compare: " + newMethod);
+        }
+    }
+
+    /**
+     * A check that, like the checks written before the identical elements were skipped, doesn't override
+     * {@link CheckBase#isInterestedInIdenticalElements()}.
+     */
+    public static final class DefaultCheck extends CheckBase {
+        @Override
+        public EnumSet<Type> getInterest() {
+            return EnumSet.of(Type.CLASS, Type.METHOD);
+        }
+
+        @Override
+        protected void doVisitClass(@Nullable JavaTypeElement oldType, @Nullable JavaTypeElement newType) {
+            visits.add("default: " + newType);
+        }
+
+        @Override
+        protected void doVisitMethod(@Nullable JavaMethodElement oldMethod, @Nullable JavaMethodElement newMethod) {
+            visits.add("default: " + newMethod);
+        }
+    }
+}
@@ -19,10 +19,13 @@ package org.revapi.java;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 
@@ -36,7 +39,9 @@ import org.revapi.Archive;
 import org.revapi.Element;
 import org.revapi.java.compilation.InclusionFilter;
 import org.revapi.java.model.JavaElementForest;
+import org.revapi.java.model.MethodElement;
 import org.revapi.java.model.TypeElement;
+import org.revapi.java.spi.UseSite;
 
 
 /**
@@ -207,6 +212,107 @@ public class JavaArchiveAnalyzerTest extends AbstractJavaElementAnalyzerTest {
         }
     }
 
+    @Test
+    public void testUseSitesOfSameSignatureMembersOfDifferentTypes() throws Exception {
+        ArchiveAndCompilationPath archive = createCompiledJar("a.jar", "misc/SameSignatureUses.java");
+
+        JavaArchiveAnalyzer analyzer = new JavaArchiveAnalyzer(new API(
+                Arrays.asList(new ShrinkwrapArchive(archive.archive)),
+                null), Executors.newSingleThreadExecutor(), null, false,
+                InclusionFilter.acceptAll());
+
+        try {
+            JavaElementForest forest = analyzer.analyze();
+
+            TypeElement root = forest.getRoots().first();
+            TypeElement used = nestedType(root, "SameSignatureUses$Used");
+
+            List<UseSite> returnTypeUses = used.getUseSites().stream()
+                    .filter(u -> u.getUseType() == UseSite.Type.RETURN_TYPE).collect(Collectors.toList());
+
+            Assert.assertEquals(2, returnTypeUses.size());
+            Assert.assertTrue(returnTypeUses.stream().anyMatch(u ->
+                    "method SameSignatureUses.Used SameSignatureUses.A::getFoo()"
+                            .equals(u.getSite().getFullHumanReadableString())));
+            Assert.assertTrue(returnTypeUses.stream().anyMatch(u ->
+                    "method SameSignatureUses.Used SameSignatureUses.B::getFoo()"
+                            .equals(u.getSite().getFullHumanReadableString())));
+
+            Element aGetFoo = nestedType(root, "SameSignatureUses$A").getChildren().first();
+            Element bGetFoo = nestedType(root, "SameSignatureUses$B").getChildren().first();
+            Element cGetFoo = inheritedGetFoo(nestedType(root, "SameSignatureUses$C"));
+            Element dGetFoo = inheritedGetFoo(nestedType(root, "SameSignatureUses$D"));
+
+            Assert.assertEquals(0, aGetFoo.compareTo(bGetFoo));
+            Assert.assertNotEquals(aGetFoo, bGetFoo);
+            Assert.assertNotEquals(aGetFoo, cGetFoo);
+            Assert.assertNotEquals(cGetFoo, dGetFoo);
+            Assert.assertEquals(4, new HashSet<>(Arrays.asList(aGetFoo, bGetFoo, cGetFoo, dGetFoo)).size());
+        } finally {
+            deleteDir(archive.compilationPath);
+            analyzer.getCompilationValve().removeCompiledResults();
+        }
+    }
+
+    @Test
+    public void testUseSitesInTypesOutsideOfTreeAreNotReported() throws Exception {
+        ArchiveAndCompilationPath archive = createCompiledJar("a.jar", "misc/SameSignatureUses.java",
+                "misc/SameSignatureUser.java");
+
+        JavaArchiveAnalyzer analyzer = new JavaArchiveAnalyzer(new API(
+                Arrays.asList(new ShrinkwrapArchive(archive.archive)),
+                null), Executors.newSingleThreadExecutor(), null, false,
+                new InclusionFilter() {
+                    @Override
+                    public boolean accepts(String typeBinaryName, String typeCanonicalName) {
+                        return !"SameSignatureUser".equals(typeBinaryName);
+                    }
+
+                    @Override
+                    public boolean rejects(String typeBinaryName, String typeCanonicalName) {
+                        return false;
+                    }
+
+                    @Override
+                    public boolean defaultCase() {
+                        return false;
+                    }
+                });
+
+        try {
+            JavaElementForest forest = analyzer.analyze();
+
+            Assert.assertEquals(1, forest.getRoots().size());
+
+            TypeElement root = forest.getRoots().first();
+            TypeElement used = nestedType(root, "SameSignatureUses$Used");
+
+            List<UseSite> returnTypeUses = used.getUseSites().stream()
+                    .filter(u -> u.getUseType() == UseSite.Type.RETURN_TYPE).collect(Collectors.toList());
+
+            Assert.assertEquals(2, returnTypeUses.size());
+            Assert.assertTrue(returnTypeUses.stream().noneMatch(u ->
+                    "method SameSignatureUses.Used SameSignatureUser::getFoo()"
+                            .equals(u.getSite().getFullHumanReadableString())));
+        } finally {
+            deleteDir(archive.compilationPath);
+            analyzer.getCompilationValve().removeCompiledResults();
+        }
+    }
+
+    private static TypeElement nestedType(TypeElement parent, String binaryName) {
+        return parent.getChildren().stream()
+                .filter(c -> c instanceof TypeElement && binaryName.equals(((TypeElement) c).getBinaryName()))
+                .map(c -> (TypeElement) c).findFirst().get();
+    }
+
+    private static Element inheritedGetFoo(TypeElement type) {
+        return type.getChildren().stream()
+                .filter(c -> c instanceof MethodElement && ((MethodElement) c).isInherited()
+                        && "getFoo".contentEquals(((MethodElement) c).getDeclaringElement().getSimpleName()))
+                .findFirst().get();
+    }
+
     private Predicate<TypeElement> hasName(String name) {
         return t -> name.equals(t.getFullHumanReadableString());
     }
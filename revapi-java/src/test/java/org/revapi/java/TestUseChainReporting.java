@@ -3,9 +3,15 @@ package org.revapi.java;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
 import org.junit.Assert;
 import org.junit.Test;
+import org.revapi.API;
+import org.revapi.AnalysisContext;
+import org.revapi.AnalysisResult;
 import org.revapi.Difference;
+import org.revapi.Revapi;
 
 /**
  * @author Lukas Krejci
@@ -26,4 +32,57 @@ public class TestUseChainReporting extends AbstractJavaElementAnalyzerTest {
         Assert.assertEquals(2, diffs.size());
         Assert.assertTrue(diffs.stream().allMatch(d -> d.attachments.get("exampleUseChainInNewApi") != null));
     }
+
+    @Test
+    public void testShortestUseChainIsReported() throws Exception {
+        ArchiveAndCompilationPath v1 = createCompiledJar("v1", "v1/usechain/UseChain.java", "v1/usechain/Support.java");
+        ArchiveAndCompilationPath v2 = createCompiledJar("v2", "v2/usechain/UseChain.java", "v2/usechain/Support.java");
+
+        try {
+            Revapi revapi = createRevapi(CollectingReporter.class);
+
+            AnalysisContext ctx = AnalysisContext.builder(revapi)
+                    .withOldAPI(API.of(new ShrinkwrapArchive(apiOf(v1)))
+                            .supportedBy(new ShrinkwrapArchive(supportOf(v1))).build())
+                    .withNewAPI(API.of(new ShrinkwrapArchive(apiOf(v2)))
+                            .supportedBy(new ShrinkwrapArchive(supportOf(v2))).build())
+                    .withConfigurationFromJSON(
+                            "{\"revapi\": {\"java\": {\"reportUsesFor\": [\"java.method.addedToInterface\"]}}}")
+                    .build();
+
+            List<Difference> diffs;
+            try (AnalysisResult res = revapi.analyze(ctx)) {
+                res.throwIfFailed();
+                diffs = res.getExtensions().getFirstExtension(CollectingReporter.class, null).getReports().stream()
+                        .flatMap(r -> r.getDifferences().stream())
+                        .filter(d -> "java.method.addedToInterface".equals(d.code))
+                        .collect(Collectors.toList());
+            }
+
+            //the path through the method Derived inherits from Base is shorter than the path through Far and Middle
+            Assert.assertEquals(1, diffs.size());
+            Assert.assertEquals("Support.Changed is returned from method Support.Changed Support.Base::get() @ "
+                            + "Support.Derived <- Support.Derived is returned from method Support.Derived "
+                            + "UseChain::derived() (method Support.Derived UseChain::derived() is part of the API)",
+                    diffs.get(0).attachments.get("exampleUseChainInNewApi"));
+        } finally {
+            deleteDir(v1.compilationPath);
+            deleteDir(v2.compilationPath);
+        }
+    }
+
+    private static JavaArchive apiOf(ArchiveAndCompilationPath compiled) {
+        return ShrinkWrap.create(JavaArchive.class, "api.jar")
+                .addAsResource(compiled.compilationPath.resolve("UseChain.class").toFile(), "UseChain.class");
+    }
+
+    private static JavaArchive supportOf(ArchiveAndCompilationPath compiled) {
+        JavaArchive ret = ShrinkWrap.create(JavaArchive.class, "support.jar");
+        for (String cls : new String[]{"Support", "Support$Far", "Support$Middle", "Support$Base", "Support$Derived",
+                "Support$Changed"}) {
+            ret.addAsResource(compiled.compilationPath.resolve(cls + ".class").toFile(), cls + ".class");
+        }
+
+        return ret;
+    }
 }
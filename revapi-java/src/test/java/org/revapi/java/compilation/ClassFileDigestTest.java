@@ -0,0 +1,155 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.java.compilation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Lukas Krejci
+ * @since 0.14.5
+ */
+public class ClassFileDigestTest {
+
+    private static final String BASE = "import java.util.List;\n" +
+            "public class T {\n" +
+            "    private int secret;\n" +
+            "    public static final int CONSTANT = 1;\n" +
+            "    @Deprecated\n" +
+            "    public void method(int param) {\n" +
+            "        System.out.println(\"a\" + param);\n" +
+            "    }\n" +
+            "    public List<String> generic() {\n" +
+            "        return null;\n" +
+            "    }\n" +
+            "}\n";
+
+    private Path workDir;
+
+    @Before
+    public void createWorkDir() throws IOException {
+        workDir = Files.createTempDirectory("class-file-digest-test");
+    }
+
+    @After
+    public void deleteWorkDir() throws IOException {
+        try (Stream<Path> files = Files.walk(workDir)) {
+            files.sorted((a, b) -> b.compareTo(a)).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testSameClassHasSameHash() throws Exception {
+        assertSame(BASE);
+    }
+
+    @Test
+    public void testPrivateFieldChangeChangesHash() throws Exception {
+        assertDifferent(BASE.replace("private int secret;", "private long secret;"));
+        assertDifferent(BASE.replace("private int secret;", "private int secret;\n    private int other;"));
+    }
+
+    @Test
+    public void testConstantChangeChangesHash() throws Exception {
+        assertDifferent(BASE.replace("CONSTANT = 1", "CONSTANT = 2"));
+    }
+
+    @Test
+    public void testAnnotationChangeChangesHash() throws Exception {
+        assertDifferent(BASE.replace("@Deprecated\n", ""));
+        assertDifferent(BASE.replace("public class T", "@Deprecated public class T"));
+    }
+
+    @Test
+    public void testGenericSignatureChangeChangesHash() throws Exception {
+        assertDifferent(BASE.replace("List<String>", "List<Integer>"));
+    }
+
+    @Test
+    public void testBytecodeOnlyChangeKeepsHash() throws Exception {
+        assertSame(BASE.replace("\"a\" + param", "\"b\" + (param * 2)"));
+        assertSame(BASE.replace("return null;", "return java.util.Collections.emptyList();"));
+    }
+
+    @Test
+    public void testDebugInformationDoesNotChangeHash() throws Exception {
+        ClassFileDigest withDebugInfo = digest(BASE, "-g");
+        ClassFileDigest withoutDebugInfo = digest(BASE, "-g:none");
+
+        Assert.assertEquals(withDebugInfo.getHash(), withoutDebugInfo.getHash());
+        Assert.assertTrue(withDebugInfo.hasSameContent(withoutDebugInfo));
+    }
+
+    @Test
+    public void testReferencedTypes() throws Exception {
+        ClassFileDigest digest = digest(BASE);
+
+        Assert.assertEquals(Arrays.asList("java.lang.Object"), digest.getSuperTypes());
+        Assert.assertTrue(digest.getReferencedTypes().contains("java.util.List"));
+        Assert.assertTrue(digest.getReferencedTypes().contains("java.lang.String"));
+        Assert.assertTrue(digest.getReferencedTypes().contains("java.lang.Deprecated"));
+    }
+
+    private void assertDifferent(String source) throws Exception {
+        ClassFileDigest base = digest(BASE);
+        ClassFileDigest changed = digest(source);
+
+        Assert.assertNotEquals(base.getHash(), changed.getHash());
+        Assert.assertFalse(base.hasSameContent(changed));
+    }
+
+    private void assertSame(String source) throws Exception {
+        ClassFileDigest base = digest(BASE);
+        ClassFileDigest same = digest(source);
+
+        Assert.assertEquals(base.getHash(), same.getHash());
+        Assert.assertTrue(base.hasSameContent(same));
+    }
+
+    private ClassFileDigest digest(String source, String... options) throws Exception {
+        Path dir = Files.createTempDirectory(workDir, "src");
+        Path sourceFile = dir.resolve("T.java");
+        Files.write(sourceFile, source.getBytes(UTF_8));
+
+        List<String> args = new ArrayList<>(Arrays.asList(options));
+        args.addAll(Arrays.asList("-d", dir.toString(), sourceFile.toString()));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assert.assertEquals(0, compiler.run(null, null, null, args.toArray(new String[0])));
+
+        try (InputStream in = Files.newInputStream(dir.resolve("T.class"))) {
+            return ClassFileDigest.read(in);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package org.revapi.java.compilation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Lukas Krejci
+ * @since 0.14.5
+ */
+public class IdentityCacheTest {
+
+    @Test
+    public void testKeysComparedByIdentity() throws Exception {
+        IdentityCache<String> cache = new IdentityCache<>(10);
+        String key = "key";
+        String equalKey = new String(key);
+
+        Assert.assertEquals("a", cache.get(key, () -> "a"));
+        Assert.assertEquals("a", cache.get(key, () -> "b"));
+        Assert.assertEquals("c", cache.get(equalKey, () -> "c"));
+        Assert.assertEquals("d", cache.get(key, equalKey, () -> "d"));
+
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesEvicted() throws Exception {
+        IdentityCache<Integer> cache = new IdentityCache<>(2);
+        Object a = new Object();
+        Object b = new Object();
+        Object c = new Object();
+
+        cache.get(a, () -> 1);
+        cache.get(b, () -> 2);
+        //a is now used more recently than b
+        cache.get(a, () -> -1);
+        cache.get(c, () -> 3);
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, (int) cache.get(a, () -> -1));
+        Assert.assertEquals(3, (int) cache.get(c, () -> -1));
+        Assert.assertEquals(-2, (int) cache.get(b, () -> -2));
+    }
+
+    @Test
+    public void testRecursiveComputation() throws Exception {
+        IdentityCache<Integer> cache = new IdentityCache<>(10);
+        Object[] keys = {new Object(), new Object(), new Object(), new Object()};
+        AtomicInteger computations = new AtomicInteger();
+
+        Assert.assertEquals(6, (int) depth(cache, keys, keys.length - 1, computations));
+        Assert.assertEquals(6, (int) depth(cache, keys, keys.length - 1, computations));
+        Assert.assertEquals(keys.length, computations.get());
+    }
+
+    @Test
+    public void testNullsNotCached() throws Exception {
+        IdentityCache<String> cache = new IdentityCache<>(10);
+        Object key = new Object();
+
+        Assert.assertNull(cache.get(key, () -> null));
+        Assert.assertEquals("a", cache.get(key, () -> "a"));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    private static Integer depth(IdentityCache<Integer> cache, Object[] keys, int index,
+                                 AtomicInteger computations) {
+        return cache.get(keys[index], () -> {
+            computations.incrementAndGet();
+            return index == 0 ? 0 : index + depth(cache, keys, index - 1, computations);
+        });
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 Lukas Krejci
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package org.revapi.java.compilation;
+
+import static java.util.Collections.emptyList;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.ToolProvider;
+
+import com.sun.source.util.JavacTask;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Lukas Krejci
+ * @since 0.14.5
+ */
+public class MissingTypeAwareDelegatingTypesTest {
+
+    private Elements elements;
+    private MissingTypeAwareDelegatingTypes types;
+
+    @Before
+    public void setup() {
+        JavacTask task = (JavacTask) ToolProvider.getSystemJavaCompiler()
+                .getTask(null, null, null, null, null, emptyList());
+        elements = task.getElements();
+        types = new MissingTypeAwareDelegatingTypes(task.getTypes());
+    }
+
+    @Test
+    public void testNothingMemoizedUntilStarted() throws Exception {
+        TypeMirror list = elements.getTypeElement("java.util.ArrayList").asType();
+
+        types.directSupertypes(list);
+        types.directSupertypes(list);
+
+        Assert.assertEquals(0, types.getMemoizedHits());
+        Assert.assertEquals(0, types.getMemoizedMisses());
+    }
+
+    @Test
+    public void testQueriesAboutTheTypesOfElementsHit() throws Exception {
+        types.startMemoizing();
+
+        List<TypeElement> typeElements = Arrays.asList(elements.getTypeElement("java.util.ArrayList"),
+                elements.getTypeElement("java.util.HashMap"), elements.getTypeElement("java.lang.String"));
+
+        //the checks ask about the same types of the compared elements over and over again
+        int rounds = 10;
+        for (int i = 0; i < rounds; ++i) {
+            for (TypeElement t : typeElements) {
+                DeclaredType type = (DeclaredType) t.asType();
+                ExecutableElement method = ElementFilter.methodsIn(t.getEnclosedElements()).get(0);
+
+                Assert.assertSame(types.directSupertypes(type), types.directSupertypes(t.asType()));
+                Assert.assertSame(types.erasure(type), types.erasure(t.asType()));
+                Assert.assertSame(types.asMemberOf(type, method), types.asMemberOf(type, method));
+            }
+        }
+
+        //only the first query about each type is computed
+        long queries = 2L * 3 * rounds * typeElements.size();
+        long misses = 3L * typeElements.size();
+        Assert.assertEquals(misses, types.getMemoizedMisses());
+        Assert.assertEquals(queries - misses, types.getMemoizedHits());
+    }
+}
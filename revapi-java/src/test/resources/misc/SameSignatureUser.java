@@ -0,0 +1,5 @@
+public class SameSignatureUser {
+    public SameSignatureUses.Used getFoo() {
+        return null;
+    }
+}
@@ -0,0 +1,22 @@
+public class SameSignatureUses {
+    public static class Used {
+    }
+
+    public static class A {
+        public Used getFoo() {
+            return null;
+        }
+    }
+
+    public static class B {
+        public Used getFoo() {
+            return null;
+        }
+    }
+
+    public static class C extends A {
+    }
+
+    public static class D extends A {
+    }
+}
@@ -0,0 +1,33 @@
+public class Attributes {
+    public int type;
+    public static final int CONSTANT = 1;
+
+    public void modifiers() {
+    }
+
+    protected void visibility() {
+    }
+
+    public void thrownTypes() {
+    }
+
+    public int returnType() {
+        return 0;
+    }
+
+    public <T> void typeParameters() {
+    }
+
+    public void annotations() {
+    }
+
+    public @interface DefaultValue {
+        int value() default 1;
+    }
+
+    public static class Kind {
+    }
+
+    public static class SuperTypes {
+    }
+}
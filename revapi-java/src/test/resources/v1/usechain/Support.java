@@ -0,0 +1,26 @@
+public class Support {
+    public static class Far {
+        public Middle middle() {
+            return null;
+        }
+    }
+
+    public static class Middle {
+        public Changed changed() {
+            return null;
+        }
+    }
+
+    public abstract static class Base {
+        public Changed get() {
+            return null;
+        }
+    }
+
+    public static class Derived extends Base {
+    }
+
+    public interface Changed {
+        void method();
+    }
+}
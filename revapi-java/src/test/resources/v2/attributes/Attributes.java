@@ -0,0 +1,34 @@
+public class Attributes {
+    public long type;
+    public static final int CONSTANT = 2;
+
+    public final void modifiers() {
+    }
+
+    public void visibility() {
+    }
+
+    public void thrownTypes() throws java.io.IOException {
+    }
+
+    public long returnType() {
+        return 0;
+    }
+
+    public <T extends Number> void typeParameters() {
+    }
+
+    @Deprecated
+    public void annotations() {
+    }
+
+    public @interface DefaultValue {
+        int value() default 2;
+    }
+
+    public interface Kind {
+    }
+
+    public static class SuperTypes implements java.io.Serializable {
+    }
+}
@@ -0,0 +1,15 @@
+public class Identical {
+    public static class Same {
+        public void method(int a) {
+        }
+    }
+
+    public static class Changed {
+        public final void method(int a) {
+        }
+    }
+
+    public enum SameEnum {
+        A, B
+    }
+}
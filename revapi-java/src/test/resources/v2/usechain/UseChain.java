@@ -0,0 +1,9 @@
+public class UseChain {
+    public Support.Far far() {
+        return null;
+    }
+
+    public Support.Derived derived() {
+        return null;
+    }
+}
@@ -43,6 +43,22 @@ public interface DifferenceAnalyzer extends AutoCloseable {
      */
     void beginAnalysis(@Nullable Element oldElement, @Nullable Element newElement);
 
+    /**
+     * Called after {@link #beginAnalysis(Element, Element)} to find out whether the children of the two elements need
+     * to be analyzed. This is only consulted when both elements exist and the filters allow descending into them.
+     *
+     * <p>The analyzers can use this to skip the analysis of the subtrees that they know cannot contain any
+     * differences.
+     *
+     * @param oldElement the element from the old archives
+     * @param newElement the element from the new archives
+     * @return true if the children of the elements should be analyzed, false otherwise
+     * @since 0.8.5
+     */
+    default boolean isDescendRequired(Element oldElement, Element newElement) {
+        return true;
+    }
+
     /**
      * Called when the analysis of the two elements ends (i.e. all the children have been visited).
      *
@@ -52,4 +68,19 @@ public interface DifferenceAnalyzer extends AutoCloseable {
      * @return a report detailing the difference found between these two elements
      */
     Report endAnalysis(@Nullable Element oldElement, @Nullable Element newElement);
+
+    /**
+     * Called after a difference transform has been applied to one of the differences reported by this analyzer. This
+     * gives the analyzers a chance to profile the transforms together with their own work. All the transforms are
+     * applied before the analyzer is closed.
+     *
+     * <p>The default implementation does nothing.
+     *
+     * @param transform     the transform that was applied
+     * @param difference    the difference the transform was applied to
+     * @param durationNanos the time the transform took, in nanoseconds
+     * @since 0.8.5
+     */
+    default void transformApplied(DifferenceTransform<?> transform, Difference difference, long durationNanos) {
+    }
 }
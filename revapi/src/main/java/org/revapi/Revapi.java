@@ -305,7 +305,7 @@ public final class Revapi {
 
             Stats.of("descends").start();
             boolean shouldDescend = a != null && b != null && filtersDescend(a, filters) &&
-                    filtersDescend(b, filters);
+                    filtersDescend(b, filters) && elementDifferenceAnalyzer.isDescendRequired(a, b);
             Stats.of("descends").end(a, b);
 
             if (shouldDescend) {
@@ -318,7 +318,7 @@ public final class Revapi {
                 Report r = elementDifferenceAnalyzer.endAnalysis(a, b);
                 Stats.of("analysisEnds").end(a, b);
                 Stats.of("analyses").end(beginDuration, new AbstractMap.SimpleEntry<>(a, b));
-                transformAndReport(r, extensions);
+                transformAndReport(r, elementDifferenceAnalyzer, extensions);
             }
         }
     }
@@ -349,7 +349,8 @@ public final class Revapi {
         }
     }
 
-    private void transformAndReport(Report report, AnalysisResult.Extensions extensions) {
+    private void transformAndReport(Report report, DifferenceAnalyzer differenceAnalyzer,
+                                    AnalysisResult.Extensions extensions) {
         if (report == null) {
             return;
         }
@@ -376,6 +377,8 @@ public final class Revapi {
                     DifferenceTransform<Element> tt = (DifferenceTransform<Element>) t;
 
                     Difference td = d;
+                    Stats.of(t.getClass().getName()).start();
+                    long start = System.nanoTime();
                     try {
                         td = tt.transform(report.getOldElement(), report.getNewElement(), d);
                     } catch (Exception e) {
@@ -384,6 +387,8 @@ public final class Revapi {
                                 " and" +
                                 " new element " + report.getNewElement(), e);
                     }
+                    differenceAnalyzer.transformApplied(t, d, System.nanoTime() - start);
+                    Stats.of(t.getClass().getName()).end(d);
 
                     // ignore if transformation returned null, meaning that it "swallowed" the difference..
                     if (td == null) {